@@ -2,8 +2,10 @@ package com.app.springboot.springboot_crud;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
+@EnableScheduling
 @PropertySource("classpath:messages.properties")
 public class AppConfig {
 
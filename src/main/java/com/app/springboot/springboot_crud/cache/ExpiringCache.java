@@ -0,0 +1,120 @@
+package com.app.springboot.springboot_crud.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache en memoria con vencimiento por entrada (TTL) y tamaño máximo.
+ *
+ * Las entradas vencidas se descartan al leerlas. Cuando el cache se llena
+ * primero se eliminan las vencidas y, si no alcanza, entradas arbitrarias hasta
+ * dejarlo al 90% de su capacidad. Lleva contadores de aciertos, fallos y
+ * desalojos que se pueden publicar en Micrometer con bindTo.
+ */
+public class ExpiringCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpiringCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    /**
+     * Igual que get pero sin contar aciertos ni fallos; para volver a consultar
+     * una llave que ya se contó.
+     */
+    public V peek(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry == null || entry.expiresAt() <= System.currentTimeMillis() ? null : entry.value();
+    }
+
+    public void put(K key, V value, long ttlMillis) {
+        if (maxEntries <= 0 || ttlMillis <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            shrink();
+        }
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void shrink() {
+        long now = System.currentTimeMillis();
+        entries.forEach((key, entry) -> {
+            if (entry.expiresAt() <= now && entries.remove(key, entry)) {
+                evictions.increment();
+            }
+        });
+
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        var iterator = entries.keySet().iterator();
+        while (entries.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Publica los contadores con el prefijo indicado: name.requests
+     * (result=hit|miss), name.evictions y name.size.
+     */
+    public void bindTo(MeterRegistry registry, String name, String... tags) {
+        FunctionCounter.builder(name + ".requests", hits, LongAdder::sum)
+                .tags(tags)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(name + ".requests", misses, LongAdder::sum)
+                .tags(tags)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder(name + ".evictions", evictions, LongAdder::sum)
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(name + ".size", entries, ConcurrentHashMap::size)
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,297 @@
+package com.app.springboot.springboot_crud.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Índice en memoria para saber si un valor único (username, sku) ya existe
+ * sin consultar la base de datos en el caso común: el valor es nuevo.
+ *
+ * - Un filtro de Bloom responde "seguro que no existe" con unas pocas
+ * operaciones de bits.
+ * - Si el filtro dice "puede existir", un conjunto exacto descarta sus falsos
+ * positivos.
+ * - Solo si el valor está en el conjunto se consulta la base de datos. El
+ * conjunto puede tener valores de más (una transacción revertida, un valor
+ * renombrado o borrado en bloque); la base de datos responde por ellos y load()
+ * los limpia. Un "no existe" de la base de datos no quita el valor del
+ * conjunto: puede ser una alta en curso que todavía no hizo commit.
+ *
+ * Los valores se agregan antes del commit, así una alta en curso nunca se
+ * reporta como inexistente. Se comparan normalizados igual que la collation
+ * por defecto de MariaDB (sin distinguir mayúsculas ni espacios finales), así
+ * "Bob" y "bob " son el mismo valor. Mientras no se termine de cargar, todas
+ * las consultas van a la base de datos. La restricción UNIQUE de la tabla sigue
+ * siendo la garantía final frente a escrituras concurrentes de otros nodos.
+ */
+public class UniquenessIndex {
+
+    private record BloomFilter(AtomicLongArray bits, int bitCount, int hashCount) {
+
+        static BloomFilter create(long expectedValues, double falsePositiveRate) {
+            long n = Math.max(1, expectedValues);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int bitCount = (int) Math.min(Integer.MAX_VALUE - 63L, Math.max(64, m));
+            int hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+            return new BloomFilter(new AtomicLongArray((bitCount + 63) / 64), bitCount, hashCount);
+        }
+
+        void add(String value) {
+            long h1 = hash(value);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                int bit = (int) Math.floorMod(h1 + i * h2, (long) bitCount);
+                long mask = 1L << (bit & 63);
+                int word = bit >>> 6;
+                long current = bits.get(word);
+                // Se reintenta si otro hilo cambió la misma palabra
+                while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                    current = bits.get(word);
+                }
+            }
+        }
+
+        boolean mightContain(String value) {
+            long h1 = hash(value);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                int bit = (int) Math.floorMod(h1 + i * h2, (long) bitCount);
+                if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /*
+         * FNV-1a de 64 bits sobre los caracteres y una mezcla final para repartir
+         * mejor los bits (doble hashing de Kirsch-Mitzenmacher).
+         */
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        }
+
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb93fe53ec4cbL;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+
+    private final Set<String> values = ConcurrentHashMap.newKeySet();
+
+    /*
+     * Altas agregadas que todavía no terminaron su transacción (valor -> cantidad).
+     * load() las conserva aunque la consulta de carga no las vea.
+     */
+    private final ConcurrentHashMap<String, Integer> pending = new ConcurrentHashMap<>();
+
+    private final Set<String> addedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean loading;
+
+    private final long expectedValues;
+
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter bloom;
+
+    private volatile boolean loaded;
+
+    private final LongAdder bloomNegatives = new LongAdder();
+    private final LongAdder setNegatives = new LongAdder();
+    private final LongAdder databaseChecks = new LongAdder();
+
+    public UniquenessIndex(long expectedValues, double falsePositiveRate) {
+        this.expectedValues = expectedValues;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloom = BloomFilter.create(expectedValues, falsePositiveRate);
+    }
+
+    /**
+     * Carga todos los valores existentes. El filtro se dimensiona para el doble
+     * de lo cargado (o lo esperado, si es mayor) y deja lugar para crecer. Los
+     * valores que sobraban en el conjunto se descartan, salvo las altas en
+     * curso.
+     */
+    public synchronized void load(Iterable<String> existing) {
+        loaded = false;
+        loading = true;
+        Set<String> pendingAtStart = new HashSet<>(pending.keySet());
+        Set<String> snapshot = new HashSet<>();
+        existing.forEach(value -> {
+            if (value != null) {
+                snapshot.add(normalize(value));
+            }
+        });
+
+        BloomFilter filter = BloomFilter.create(Math.max(expectedValues, snapshot.size() * 2L), falsePositiveRate);
+        // Se descartan los valores de más (transacciones revertidas, sku
+        // renombrados). Las altas en curso al empezar o agregadas durante la
+        // carga se conservan: su commit pudo llegar después de la consulta.
+        // add() marca pending antes de tocar values, así una alta concurrente
+        // nunca se descarta aquí
+        values.removeIf(value -> !snapshot.contains(value) && !pendingAtStart.contains(value)
+                && !pending.containsKey(value) && !addedDuringLoad.contains(value));
+        values.addAll(snapshot);
+        bloom = filter;
+        // Desde aquí add() escribe en el filtro nuevo; lo anterior (incluido lo
+        // agregado durante la carga) se copia ahora
+        values.forEach(filter::add);
+        loading = false;
+        addedDuringLoad.clear();
+        loaded = true;
+    }
+
+    /**
+     * Indica si el valor existe. database solo se usa cuando el índice no puede
+     * descartarlo.
+     */
+    public boolean exists(String value, Predicate<String> database) {
+        if (value == null) {
+            return false;
+        }
+        String key = normalize(value);
+        if (!loaded) {
+            databaseChecks.increment();
+            return database.test(value);
+        }
+        if (!bloom.mightContain(key)) {
+            bloomNegatives.increment();
+            return false;
+        }
+        if (!values.contains(key)) {
+            setNegatives.increment();
+            return false;
+        }
+        databaseChecks.increment();
+        return database.test(value);
+    }
+
+    /**
+     * Versión por lotes de exists: de los valores recibidos devuelve los que
+     * existen, normalizados (ver normalize). Los que el índice no puede
+     * descartar se resuelven con una sola llamada a database (por ejemplo una
+     * consulta IN).
+     */
+    public Set<String> existing(Collection<String> candidates,
+            Function<Collection<String>, Collection<String>> database) {
+        List<String> unresolved = new ArrayList<>();
+        for (String candidate : candidates) {
+            if (candidate == null) {
+                continue;
+            }
+            String value = normalize(candidate);
+            if (!loaded) {
+                unresolved.add(value);
+            } else if (!bloom.mightContain(value)) {
+                bloomNegatives.increment();
+            } else if (!values.contains(value)) {
+                setNegatives.increment();
+            } else {
+                unresolved.add(value);
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return Set.of();
+        }
+
+        databaseChecks.add(unresolved.size());
+        Set<String> existing = new HashSet<>();
+        database.apply(unresolved).forEach(value -> existing.add(normalize(value)));
+        return existing;
+    }
+
+    /**
+     * Agrega una alta antes de su commit. Quien llama debe invocar completed
+     * con el mismo valor cuando la transacción termine (commit o rollback).
+     */
+    public void add(String value) {
+        if (value != null) {
+            String key = normalize(value);
+            pending.merge(key, 1, Integer::sum);
+            if (loading) {
+                addedDuringLoad.add(key);
+            }
+            values.add(key);
+            bloom.add(key);
+        }
+    }
+
+    /**
+     * La transacción de una alta terminó; el valor queda en el conjunto hasta el
+     * próximo load() si no llegó a la base de datos.
+     */
+    public void completed(String value) {
+        if (value != null) {
+            pending.computeIfPresent(normalize(value), (key, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    /*
+     * El filtro de Bloom no permite quitar valores; basta con quitarlo del
+     * conjunto exacto. Si hay una alta en curso del mismo valor se conserva.
+     */
+    public void remove(String value) {
+        if (value != null) {
+            String key = normalize(value);
+            if (!pending.containsKey(key)) {
+                values.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Forma en que se comparan los valores: en minúsculas y sin espacios finales,
+     * como la collation por defecto de MariaDB (utf8mb4_general_ci, PAD SPACE).
+     */
+    public static String normalize(String value) {
+        return value.stripTrailing().toLowerCase(Locale.ROOT);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Publica name.checks (result=bloom|set|database) y name.size.
+     */
+    public void bindTo(MeterRegistry registry, String name, String... tags) {
+        FunctionCounter.builder(name + ".checks", bloomNegatives, LongAdder::sum)
+                .tags(tags)
+                .tag("result", "bloom")
+                .register(registry);
+        FunctionCounter.builder(name + ".checks", setNegatives, LongAdder::sum)
+                .tags(tags)
+                .tag("result", "set")
+                .register(registry);
+        FunctionCounter.builder(name + ".checks", databaseChecks, LongAdder::sum)
+                .tags(tags)
+                .tag("result", "database")
+                .register(registry);
+        Gauge.builder(name + ".size", values, Set::size)
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,104 @@
+package com.app.springboot.springboot_crud.controllers;
+
+import static com.app.springboot.springboot_crud.security.TokenJwtConfig.HEADER_AUTHORIZATION;
+import static com.app.springboot.springboot_crud.security.TokenJwtConfig.PREFIX_TOKEN;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.app.springboot.springboot_crud.security.JwtTokenEngine;
+import com.app.springboot.springboot_crud.security.LoginThrottle;
+import com.app.springboot.springboot_crud.security.LoginThrottledException;
+import com.app.springboot.springboot_crud.services.RefreshTokenService;
+import com.app.springboot.springboot_crud.services.RefreshTokenService.Rotation;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Renovación del JWT con el refresh token entregado en el login, sin volver a
+ * enviar (ni verificar con BCrypt) la contraseña.
+ */
+@CrossOrigin(origins = { "http://localhost:4200" }, originPatterns = "*")
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtTokenEngine tokenEngine;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    /*
+     * Es público y consulta la base de datos en cada llamada: comparte el límite
+     * por dirección IP del login y un exceso se responde con 429.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
+        try {
+            loginThrottle.checkAddress(httpRequest.getRemoteAddr());
+        } catch (LoginThrottledException e) {
+            Map<String, String> body = new HashMap<>();
+            body.put("message", "Demasiados intentos de renovar la sesión");
+            body.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(body);
+        }
+
+        Optional<Rotation> optionalRotation = refreshTokenService.rotate(request.get("refreshToken"));
+        if (optionalRotation.isEmpty()) {
+            return unauthorized("El refresh token es invalido, expiró o ya fue utilizado!");
+        }
+
+        Rotation rotation = optionalRotation.orElseThrow();
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(rotation.username());
+        } catch (UsernameNotFoundException e) {
+            return unauthorized(e.getMessage());
+        }
+        if (!user.isEnabled()) {
+            return unauthorized(String.format("El usuario %s está deshabilitado", user.getUsername()));
+        }
+
+        String token = tokenEngine.createToken(user.getUsername(), user.getAuthorities());
+
+        Map<String, String> body = new HashMap<>();
+        body.put("token", token);
+        body.put("refreshToken", rotation.refreshToken());
+        body.put("username", user.getUsername());
+        body.put("message", String.format("Hola %s tu sesión fue renovada con éxito", user.getUsername()));
+
+        return ResponseEntity.ok()
+                .header(HEADER_AUTHORIZATION, PREFIX_TOKEN + token)
+                .body(body);
+    }
+
+    private ResponseEntity<?> unauthorized(String error) {
+        Map<String, String> body = new HashMap<>();
+        body.put("message", "No fue posible renovar la sesión");
+        body.put("error", error);
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(body);
+    }
+}
@@ -0,0 +1,29 @@
+package com.app.springboot.springboot_crud.controllers;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Una restricción de la base de datos (por ejemplo UNIQUE de username o sku)
+ * rechazó la escritura: ocurre cuando dos altas del mismo valor corren a la vez
+ * y ambas pasan la validación. Se responde 409 en lugar de un 500.
+ */
+@RestControllerAdvice
+public class DataIntegrityExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(DataIntegrityExceptionHandler.class);
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<?> handle(DataIntegrityViolationException e) {
+        log.debug("Restricción de integridad violada", e);
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "El registro entra en conflicto con uno existente (valor único repetido)"));
+    }
+}
@@ -1,54 +1,186 @@
 package com.app.springboot.springboot_crud.controllers;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 // import com.app.springboot.springboot_crud.ProductValidation;
+import com.app.springboot.springboot_crud.dto.BulkProductRequest;
+import com.app.springboot.springboot_crud.dto.ImportReport;
+import com.app.springboot.springboot_crud.dto.ProductCursor;
+import com.app.springboot.springboot_crud.dto.ProductFilter;
+import com.app.springboot.springboot_crud.dto.ProductPatch;
+import com.app.springboot.springboot_crud.dto.ProductSort;
 import com.app.springboot.springboot_crud.entities.Product;
+import com.app.springboot.springboot_crud.services.ProductImportService;
+import com.app.springboot.springboot_crud.services.ProductResponseCache;
 import com.app.springboot.springboot_crud.services.ProductService;
+import com.app.springboot.springboot_crud.services.ProductVersionConflictException;
+import com.app.springboot.springboot_crud.validation.FormatChecks;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 
 @CrossOrigin(origins = { "http://localhost:4200" }, originPatterns = "*")
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+    /*
+     * Fuera de este rango priceDelta deja cualquier precio válido fuera de los
+     * límites de Product.
+     */
+    private static final int MIN_PRICE_DELTA = Product.MIN_PRICE - Product.MAX_PRICE;
+    private static final int MAX_PRICE_DELTA = Product.MAX_PRICE - Product.MIN_PRICE;
+
     // @Autowired
     // private ProductValidation validation;
 
     @Autowired
     private ProductService service;
 
+    @Autowired
+    private ProductResponseCache responseCache;
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${app.pagination.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.products.batch.max-ids:100}")
+    private int maxBatchIds;
+
+    @Value("${product.bulk.max-ids:50000}")
+    private int maxBulkIds;
+
+    /*
+     * Listado paginado por cursor (keyset). sort: id, price o name; filtros
+     * opcionales minPrice, maxPrice y sku (prefijo). El cursor es el nextCursor de
+     * la página anterior y debe usarse con el mismo sort.
+     * 
+     * list y view responden con el JSON ya serializado de ProductResponseCache
+     * (con ETag y 304 si el cliente envía If-None-Match).
+     */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    public List<Product> list() {
-        return service.findAll();
+    public ResponseEntity<?> list(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer minPrice,
+            @RequestParam(required = false) Integer maxPrice,
+            @RequestParam(required = false) String sku,
+            HttpServletRequest request) {
+        ProductSort productSort;
+        ProductCursor after = null;
+        try {
+            productSort = ProductSort.fromParam(sort);
+            if (cursor != null) {
+                after = ProductCursor.decode(cursor);
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Los parámetros sort o cursor no son válidos"));
+        }
+        if (after != null && after.sort() != productSort) {
+            return ResponseEntity.badRequest().body(Map.of("cursor", "El cursor pertenece a otro orden"));
+        }
+
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        ProductFilter filter = new ProductFilter(minPrice, maxPrice, sku);
+        ProductCursor position = after;
+        return responseCache.page(filter, productSort, position, pageSize, request,
+                () -> service.findPage(filter, productSort, position, pageSize));
+    }
+
+    /*
+     * Varios productos en una sola solicitud: GET /api/products?ids=3,1,7. Los
+     * productos vuelven en el orden pedido (sin repetidos) y los ids que no
+     * existen se informan en missing.
+     */
+    @GetMapping(params = "ids")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<?> listByIds(@RequestParam List<Long> ids) {
+        LinkedHashSet<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.isEmpty() || requested.size() > maxBatchIds) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("ids", "Se deben pedir entre 1 y " + maxBatchIds + " ids"));
+        }
+
+        Map<Long, Optional<Product>> found = service.findAllById(requested);
+        List<Product> products = new ArrayList<>(requested.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            Optional<Product> product = found.getOrDefault(id, Optional.empty());
+            if (product.isPresent()) {
+                products.add(product.orElseThrow());
+            } else {
+                missing.add(id);
+            }
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("products", products);
+        body.put("missing", missing);
+        return ResponseEntity.ok(body);
+    }
+
+    /*
+     * Búsqueda por texto en el nombre y la descripción. Cada palabra puede ser un
+     * prefijo ("lap" encuentra "laptop") y el producto debe contener todas.
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<?> search(@RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit) {
+        if (q == null || q.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("q", "El parámetro q es requerido"));
+        }
+        int max = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        return ResponseEntity.ok(service.search(q, max));
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    public ResponseEntity<?> view(@PathVariable Long id) {
-        Optional<Product> optionalProduct = service.findById(id);
-        if (optionalProduct.isPresent()) {
-            return ResponseEntity.ok(optionalProduct.orElseThrow());
+    public ResponseEntity<?> view(@PathVariable Long id, HttpServletRequest request) {
+        Optional<ResponseEntity<byte[]>> response = responseCache.product(id, request, () -> service.findById(id));
+        if (response.isPresent()) {
+            return response.orElseThrow();
         }
         return ResponseEntity.notFound().build();
     }
@@ -117,19 +249,149 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(productNew);
     }
 
+    /*
+     * Importación masiva: arreglo JSON de productos o CSV con encabezado
+     * (sku,name,price,description). El cuerpo se lee en streaming, sin @RequestBody,
+     * y la respuesta detalla las filas rechazadas.
+     */
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importJson(HttpServletRequest request) throws IOException {
+        try {
+            ImportReport report = importService.importJson(request.getInputStream());
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping(path = "/import", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importCsv(HttpServletRequest request) throws IOException {
+        try {
+            ImportReport report = importService.importCsv(request.getInputStream());
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /*
+     * Actualización masiva por ids o por filtro: {"ids": [...]} o
+     * {"filter": {"minPrice": ..., "maxPrice": ..., "skuPrefix": ...}} junto con
+     * price, priceDelta y/o description. Responde cuántos productos cambiaron.
+     */
+    @PostMapping("/bulk-update")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> bulkUpdate(@RequestBody BulkProductRequest request) {
+        Map<String, String> errors = bulkSelectionErrors(request);
+        if (request.price() == null && request.priceDelta() == null && request.description() == null) {
+            errors.put("changes", "Se debe indicar price, priceDelta o description");
+        }
+        if (request.price() != null && request.priceDelta() != null) {
+            errors.put("price", "price y priceDelta no se pueden usar juntos");
+        }
+        // Se valida antes de procesar el primer bloque: un error en la base a mitad
+        // del recorrido dejaría los bloques anteriores ya confirmados
+        validateField("price", request.price(), errors);
+        if (request.priceDelta() != null && (request.priceDelta() < MIN_PRICE_DELTA
+                || request.priceDelta() > MAX_PRICE_DELTA)) {
+            errors.put("priceDelta",
+                    "El campo priceDelta debe estar entre " + MIN_PRICE_DELTA + " y " + MAX_PRICE_DELTA);
+        }
+        if (request.description() != null && request.description().isBlank()) {
+            errors.put("description", "El campo description es requerido");
+        }
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(errors);
+        }
+        return ResponseEntity.ok(Map.of("updated", service.bulkUpdate(request)));
+    }
+
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> bulkDelete(@RequestBody BulkProductRequest request) {
+        Map<String, String> errors = bulkSelectionErrors(request);
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(errors);
+        }
+        return ResponseEntity.ok(Map.of("deleted", service.bulkDelete(request)));
+    }
+
+    /*
+     * PUT y PATCH aceptan If-Match con el ETag de GET /api/products/{id}: si otra
+     * edición cambió el producto se responde 412 en lugar de sobrescribirla. Sin
+     * If-Match se aplica sobre la versión que haya.
+     */
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> update(@Valid @RequestBody Product product, BindingResult result,
-            @PathVariable Long id) {
+            @PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         // validation.validate(product, result);
         if (result.hasFieldErrors()) {
             return validation(result);
         }
-        Optional<Product> productOptional = service.update(id, product);
-        if (productOptional.isPresent()) {
-            return ResponseEntity.status(HttpStatus.CREATED).body(productOptional.orElseThrow());
+        return conditionalUpdate(ifMatch, HttpStatus.CREATED,
+                expectedVersion -> service.update(id, product, expectedVersion));
+    }
+
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> patch(@RequestBody ProductPatch patch, @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Map<String, String> errors = new HashMap<>();
+        if (patch.isEmpty()) {
+            errors.put("changes", "Se debe indicar al menos un campo a modificar");
+        }
+        // Sin @IsExistsDB: reenviar el sku actual del producto no es un error. Un
+        // sku de otro producto lo rechaza uk_products_sku con 409
+        validateField("sku", patch.sku(), errors, FormatChecks.class);
+        validateField("name", patch.name(), errors);
+        validateField("price", patch.price(), errors);
+        validateField("description", patch.description(), errors);
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(errors);
+        }
+        return conditionalUpdate(ifMatch, HttpStatus.OK, expectedVersion -> service.patch(id, patch, expectedVersion));
+    }
+
+    private ResponseEntity<?> conditionalUpdate(String ifMatch, HttpStatus status,
+            Function<Long, Optional<Product>> update) {
+        Long expectedVersion;
+        try {
+            expectedVersion = ifMatch == null ? null : ProductResponseCache.parseVersionTag(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of("error", e.getMessage()));
+        }
+
+        try {
+            Optional<Product> productOptional = update.apply(expectedVersion);
+            if (productOptional.isPresent()) {
+                Product product = productOptional.orElseThrow();
+                return ResponseEntity.status(status)
+                        .eTag(ProductResponseCache.versionTag(product.getVersion()))
+                        .body(product);
+            }
+            return ResponseEntity.notFound().build();
+        } catch (ProductVersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .eTag(ProductResponseCache.versionTag(e.getCurrentVersion()))
+                    .body(Map.of("error", e.getMessage(), "version", e.getCurrentVersion()));
+        }
+    }
+
+    /*
+     * Los campos presentes en el PATCH o en la actualización masiva se validan con
+     * las mismas restricciones de la entidad Product (del grupo indicado o
+     * Default).
+     */
+    private void validateField(String field, Object value, Map<String, String> errors, Class<?>... groups) {
+        if (value == null) {
+            return;
+        }
+        for (ConstraintViolation<Product> violation : validator.validateValue(Product.class, field, value, groups)) {
+            errors.putIfAbsent(field, "El campo " + field + " " + violation.getMessage());
         }
-        return ResponseEntity.notFound().build();
     }
 
     @DeleteMapping("/{id}")
@@ -142,6 +404,25 @@ public class ProductController {
         return ResponseEntity.notFound().build();
     }
 
+    /*
+     * Una operación masiva necesita ids o un filtro con al menos un criterio; un
+     * filtro vacío abarcaría todo el catálogo.
+     */
+    private Map<String, String> bulkSelectionErrors(BulkProductRequest request) {
+        Map<String, String> errors = new HashMap<>();
+        boolean hasIds = request.ids() != null && !request.ids().isEmpty();
+        ProductFilter filter = request.filter();
+        boolean hasFilter = filter != null && (filter.minPrice() != null || filter.maxPrice() != null
+                || (filter.skuPrefix() != null && !filter.skuPrefix().isEmpty()));
+        if (!hasIds && !hasFilter) {
+            errors.put("ids", "Se deben indicar ids o un filtro con al menos un criterio");
+        }
+        if (hasIds && request.ids().size() > maxBulkIds) {
+            errors.put("ids", "Se pueden indicar como máximo " + maxBulkIds + " ids");
+        }
+        return errors;
+    }
+
     private ResponseEntity<?> validation(BindingResult result) {
         Map<String, String> errors = new HashMap<>();
 
@@ -0,0 +1,26 @@
+package com.app.springboot.springboot_crud.controllers;
+
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.app.springboot.springboot_crud.services.ProductLoadTimeoutException;
+
+/**
+ * La carga del catálogo que se estaba esperando no terminó a tiempo (ver
+ * ProductCache): se responde 503 con Retry-After en lugar de retener el hilo.
+ */
+@RestControllerAdvice
+public class ProductLoadTimeoutExceptionHandler {
+
+    @ExceptionHandler(ProductLoadTimeoutException.class)
+    public ResponseEntity<?> handle(ProductLoadTimeoutException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
+    }
+}
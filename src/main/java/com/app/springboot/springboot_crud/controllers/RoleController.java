@@ -0,0 +1,33 @@
+package com.app.springboot.springboot_crud.controllers;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.app.springboot.springboot_crud.services.RoleRegistry;
+
+@CrossOrigin(origins = { "http://localhost:4200" }, originPatterns = "*")
+@RestController
+@RequestMapping("/api/roles")
+public class RoleController {
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    /*
+     * Vuelve a cargar los roles en memoria después de modificarlos en la base de
+     * datos.
+     */
+    @PostMapping("/refresh")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> refresh() {
+        roleRegistry.refresh();
+        return ResponseEntity.ok(Map.of("roles", roleRegistry.names()));
+    }
+}
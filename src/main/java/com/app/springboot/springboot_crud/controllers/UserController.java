@@ -1,9 +1,12 @@
 package com.app.springboot.springboot_crud.controllers;
 
+import java.io.IOException;
 import java.util.*;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
@@ -12,11 +15,15 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.app.springboot.springboot_crud.dto.ProvisionReport;
 import com.app.springboot.springboot_crud.entities.User;
 import com.app.springboot.springboot_crud.repositories.UserService;
+import com.app.springboot.springboot_crud.services.UserProvisioningService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 /**
@@ -52,9 +59,33 @@ public class UserController {
     @Autowired
     private UserService service;
 
+    @Autowired
+    private UserProvisioningService provisioningService;
+
+    @Value("${app.pagination.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.max-size:100}")
+    private int maxPageSize;
+
+    /*
+     * Listado paginado por cursor: cursor es el nextCursor de la página anterior,
+     * size se limita a app.pagination.max-size y username filtra por prefijo.
+     */
     @GetMapping
-    public List<User> list() {
-        return service.findAll();
+    public ResponseEntity<?> list(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String username) {
+        Long after = null;
+        if (cursor != null) {
+            try {
+                after = Long.valueOf(cursor);
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().body(Map.of("cursor", "El cursor no es válido"));
+            }
+        }
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        return ResponseEntity.ok(service.findPage(after, pageSize, username));
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -66,6 +97,21 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(service.save(user));
     }
 
+    /*
+     * Alta masiva: arreglo JSON de {username, password} leído en streaming.
+     * Responde el resultado de cada fila (id creado o errores).
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> bulkCreate(HttpServletRequest request) throws IOException {
+        try {
+            ProvisionReport report = provisioningService.provision(request.getInputStream());
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody User user, BindingResult result) {
         user.setAdmin(false);
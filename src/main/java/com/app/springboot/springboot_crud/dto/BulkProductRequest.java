@@ -0,0 +1,13 @@
+package com.app.springboot.springboot_crud.dto;
+
+import java.util.List;
+
+/*
+ * Operación masiva sobre productos. Los productos se eligen por ids o, si no
+ * hay ids, por filter (al menos un criterio). Para actualizar: price fija el
+ * precio, priceDelta lo suma (puede ser negativo) y description la reemplaza;
+ * en un borrado se ignoran.
+ */
+public record BulkProductRequest(List<Long> ids, ProductFilter filter, Integer price, Integer priceDelta,
+        String description) {
+}
@@ -0,0 +1,11 @@
+package com.app.springboot.springboot_crud.dto;
+
+import java.util.List;
+
+/*
+ * Página de resultados con paginación por cursor (keyset). nextCursor es null
+ * cuando no hay más resultados; si no, se envía tal cual en el parámetro
+ * cursor de la siguiente solicitud.
+ */
+public record CursorPage<T>(List<T> content, String nextCursor) {
+}
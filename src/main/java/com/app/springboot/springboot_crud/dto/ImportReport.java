@@ -0,0 +1,15 @@
+package com.app.springboot.springboot_crud.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Resultado de una importación masiva: filas leídas, importadas y rechazadas.
+ * errors trae el detalle por fila (número de fila, sku y errores por campo)
+ * hasta el máximo configurado; errorsTruncated indica que hubo más.
+ */
+public record ImportReport(int rows, int imported, int rejected, List<RowError> errors, boolean errorsTruncated) {
+
+    public record RowError(int row, String sku, Map<String, String> errors) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.app.springboot.springboot_crud.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.app.springboot.springboot_crud.entities.Product;
+
+/*
+ * Posición de la paginación por keyset de productos: el valor de la llave de
+ * orden y el id del último producto entregado. Viaja al cliente como un texto
+ * opaco en Base64 (sort|id|valor).
+ */
+public record ProductCursor(ProductSort sort, Long id, Integer price, String name) {
+
+    public static ProductCursor after(ProductSort sort, Product product) {
+        return new ProductCursor(sort, product.getId(), product.getPrice(), product.getName());
+    }
+
+    public String encode() {
+        String value = switch (sort) {
+            case ID -> "";
+            case PRICE -> String.valueOf(price);
+            case NAME -> name;
+        };
+        String raw = sort.name() + "|" + id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /*
+     * Lanza IllegalArgumentException si el cursor no es válido.
+     */
+    public static ProductCursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = raw.split("\\|", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        ProductSort sort = ProductSort.valueOf(parts[0]);
+        Long id = Long.valueOf(parts[1]);
+        return switch (sort) {
+            case ID -> new ProductCursor(sort, id, null, null);
+            case PRICE -> new ProductCursor(sort, id, Integer.valueOf(parts[2]), null);
+            case NAME -> new ProductCursor(sort, id, null, parts[2]);
+        };
+    }
+}
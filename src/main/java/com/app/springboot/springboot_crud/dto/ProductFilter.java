@@ -0,0 +1,8 @@
+package com.app.springboot.springboot_crud.dto;
+
+/*
+ * Filtros opcionales del listado de productos: rango de precio (inclusive) y
+ * prefijo de SKU. Un valor null significa sin filtro.
+ */
+public record ProductFilter(Integer minPrice, Integer maxPrice, String skuPrefix) {
+}
@@ -0,0 +1,11 @@
+package com.app.springboot.springboot_crud.dto;
+
+/*
+ * Cambios parciales de un producto (PATCH). Los campos null no se modifican.
+ */
+public record ProductPatch(String sku, String name, Integer price, String description) {
+
+    public boolean isEmpty() {
+        return sku == null && name == null && price == null && description == null;
+    }
+}
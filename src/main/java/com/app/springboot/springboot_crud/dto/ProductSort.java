@@ -0,0 +1,18 @@
+package com.app.springboot.springboot_crud.dto;
+
+import java.util.Locale;
+
+/*
+ * Llaves de orden del listado de productos. Todas se desempatan por id para
+ * que la paginación por keyset sea estable.
+ */
+public enum ProductSort {
+    ID, PRICE, NAME;
+
+    public static ProductSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,16 @@
+package com.app.springboot.springboot_crud.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Resultado de un alta masiva de usuarios: filas leídas, creadas y rechazadas.
+ * results trae el resultado de cada fila (id del usuario creado o sus errores
+ * por campo) hasta el máximo configurado; resultsTruncated indica que hubo más.
+ */
+public record ProvisionReport(int rows, int created, int rejected, List<RowResult> results,
+        boolean resultsTruncated) {
+
+    public record RowResult(int row, String username, Long id, Map<String, String> errors) {
+    }
+}
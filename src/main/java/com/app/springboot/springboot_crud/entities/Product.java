@@ -1,28 +1,51 @@
 package com.app.springboot.springboot_crud.entities;
 
+import com.app.springboot.springboot_crud.validation.FormatChecks;
 import com.app.springboot.springboot_crud.validation.IsExistsDB;
 import com.app.springboot.springboot_crud.validation.IsRequired;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Min;
 // import jakarta.validation.constraints.NotBlank;
 // import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import jakarta.validation.groups.Default;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "uk_products_sku", columnList = "sku", unique = true) })
 public class Product {
 
+    /*
+     * Límites de price: @Min y el rango de la columna INT. Las actualizaciones
+     * masivas no pasan por Bean Validation y los usan directamente.
+     */
+    public static final int MIN_PRICE = 10;
+    public static final int MAX_PRICE = Integer.MAX_VALUE;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    /*
+     * Secuencia con asignación por bloques (optimizador pooled): Hibernate reserva
+     * 50 ids por cada NEXT VALUE y ya no necesita ejecutar cada INSERT al
+     * momento para leer el id generado, como con IDENTITY. Eso permite agrupar
+     * los INSERT en lotes (hibernate.jdbc.batch_size).
+     */
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
-    @IsRequired
+    @IsRequired(groups = { Default.class, FormatChecks.class })
     @IsExistsDB
     private String sku;
 
@@ -31,7 +54,7 @@ public class Product {
     @Size(min = 3, max = 20)
     private String name;
 
-    @Min(value = 10, message = "{Min.product.price}")
+    @Min(value = MIN_PRICE, message = "{Min.product.price}")
     @NotNull(message = "{NotNull.product.price}")
     private Integer price;
 
@@ -40,6 +63,15 @@ public class Product {
     @IsRequired
     private String description;
 
+    /*
+     * Control de concurrencia optimista: cada actualización incrementa la versión
+     * y las ediciones con If-Match solo se aplican si la versión no cambió. El
+     * cliente no la envía en el cuerpo, viaja en el ETag.
+     */
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -80,4 +112,12 @@ public class Product {
         this.sku = sku;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
 }
@@ -2,7 +2,11 @@ package com.app.springboot.springboot_crud.entities;
 
 import java.util.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.app.springboot.springboot_crud.validation.ExistsByUsername;
+import com.app.springboot.springboot_crud.validation.FormatChecks;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -15,27 +19,30 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import jakarta.validation.groups.Default;
 
 @Entity
 @Table(name = "users")
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true)
     @ExistsByUsername
-    @NotBlank
-    @Size(min = 4, max = 12)
+    @NotBlank(groups = { Default.class, FormatChecks.class })
+    @Size(min = 4, max = 12, groups = { Default.class, FormatChecks.class })
     private String username;
 
-    @NotBlank
+    @NotBlank(groups = { Default.class, FormatChecks.class })
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
@@ -83,7 +90,13 @@ public class User {
      * 
      */
 
+    /*
+     * La asociación users_roles (ids de roles por usuario) también va al cache de
+     * segundo nivel; junto con el cache de Role, los roles de un usuario ya
+     * cargado se resuelven sin consultas.
+     */
     @JsonIgnoreProperties({ "users", "handler", "hibernateLazyInitializer" })
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany
     @JoinTable(name = "users_roles", joinColumns = @JoinColumn(name = "user_id"), inverseJoinColumns = @JoinColumn(name = "role_id"), uniqueConstraints = {
             @UniqueConstraint(columnNames = { "user_id", "rol_id" }) })
@@ -1,9 +1,33 @@
 package com.app.springboot.springboot_crud.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import com.app.springboot.springboot_crud.entities.Product;
 
-public interface ProductRepository extends CrudRepository<Product, Long> {
+public interface ProductRepository extends CrudRepository<Product, Long>, ProductRepositoryCustom {
     boolean existsBySku(String sku);
+
+    /*
+     * De los sku recibidos devuelve los que ya existen, en una sola consulta IN
+     * (usado por la importación masiva en lugar de un existsBySku por fila).
+     */
+    @Query("select p.sku from Product p where p.sku in :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    @Query("select p.sku from Product p")
+    List<String> findAllSkus();
+
+    @Query("select p.version from Product p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from Product p where p.id in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
 }
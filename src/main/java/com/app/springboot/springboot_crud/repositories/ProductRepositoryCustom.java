@@ -0,0 +1,25 @@
+package com.app.springboot.springboot_crud.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.app.springboot.springboot_crud.dto.ProductCursor;
+import com.app.springboot.springboot_crud.dto.ProductFilter;
+import com.app.springboot.springboot_crud.dto.ProductPatch;
+import com.app.springboot.springboot_crud.dto.ProductSort;
+import com.app.springboot.springboot_crud.entities.Product;
+
+/*
+ * Consultas de productos que se arman dinámicamente (filtros opcionales y
+ * keyset según la llave de orden). La implementación es ProductRepositoryImpl.
+ */
+public interface ProductRepositoryCustom {
+
+    List<Product> findPage(ProductFilter filter, ProductSort sort, ProductCursor after, int limit);
+
+    List<Long> findIds(ProductFilter filter, Long afterId, int limit);
+
+    int bulkUpdate(Collection<Long> ids, Integer price, Integer priceDelta, String description);
+
+    int patch(Long id, ProductPatch patch, Long expectedVersion);
+}
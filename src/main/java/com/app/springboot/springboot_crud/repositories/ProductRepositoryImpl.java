@@ -0,0 +1,167 @@
+package com.app.springboot.springboot_crud.repositories;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.app.springboot.springboot_crud.dto.ProductCursor;
+import com.app.springboot.springboot_crud.dto.ProductFilter;
+import com.app.springboot.springboot_crud.dto.ProductPatch;
+import com.app.springboot.springboot_crud.dto.ProductSort;
+import com.app.springboot.springboot_crud.entities.Product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /*
+     * Paginación por keyset: en lugar de OFFSET se filtra por la posición del
+     * último producto entregado, (llave, id) > (valor, id), y se ordena por
+     * (llave, id). Con los índices (price, id) y (name, id) el costo no depende de
+     * qué tan lejos esté la página.
+     */
+    @Override
+    public List<Product> findPage(ProductFilter filter, ProductSort sort, ProductCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> product = query.from(Product.class);
+
+        Path<Long> id = product.get("id");
+        Path<Integer> price = product.get("price");
+        Path<String> name = product.get("name");
+
+        List<Predicate> predicates = filterPredicates(cb, product, filter);
+        if (after != null) {
+            predicates.add(switch (sort) {
+                case ID -> cb.greaterThan(id, after.id());
+                case PRICE -> cb.or(cb.greaterThan(price, after.price()),
+                        cb.and(cb.equal(price, after.price()), cb.greaterThan(id, after.id())));
+                case NAME -> cb.or(cb.greaterThan(name, after.name()),
+                        cb.and(cb.equal(name, after.name()), cb.greaterThan(id, after.id())));
+            });
+        }
+
+        query.select(product).where(predicates.toArray(Predicate[]::new));
+        switch (sort) {
+            case ID -> query.orderBy(cb.asc(id));
+            case PRICE -> query.orderBy(cb.asc(price), cb.asc(id));
+            case NAME -> query.orderBy(cb.asc(name), cb.asc(id));
+        }
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    /*
+     * Ids que cumplen el filtro en orden ascendente a partir de afterId; las
+     * operaciones masivas recorren así el catálogo por bloques.
+     */
+    @Override
+    public List<Long> findIds(ProductFilter filter, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> product = query.from(Product.class);
+        Path<Long> id = product.get("id");
+
+        List<Predicate> predicates = filterPredicates(cb, product, filter);
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(id, afterId));
+        }
+        query.select(id).where(predicates.toArray(Predicate[]::new)).orderBy(cb.asc(id));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    /*
+     * Un solo UPDATE para todos los ids. Con priceDelta se omiten las filas cuyo
+     * precio quedaría fuera de los límites de Product (MariaDB suma en BIGINT,
+     * así la comparación no desborda).
+     */
+    @Override
+    public int bulkUpdate(Collection<Long> ids, Integer price, Integer priceDelta, String description) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Product> update = cb.createCriteriaUpdate(Product.class);
+        Root<Product> product = update.from(Product.class);
+        Path<Integer> currentPrice = product.get("price");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(product.get("id").in(ids));
+        if (price != null) {
+            update.set(currentPrice, price);
+        }
+        if (priceDelta != null) {
+            Expression<Integer> newPrice = cb.sum(currentPrice, priceDelta);
+            update.set(currentPrice, newPrice);
+            predicates.add(cb.between(newPrice, Product.MIN_PRICE, Product.MAX_PRICE));
+        }
+        if (description != null) {
+            update.set(product.<String>get("description"), description);
+        }
+        Path<Long> version = product.get("version");
+        update.set(version, cb.sum(version, 1L));
+        update.where(predicates.toArray(Predicate[]::new));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    /*
+     * Actualización condicional en una sola sentencia:
+     * UPDATE products SET ..., version = version + 1 WHERE id = ? [AND version = ?]
+     * Devuelve 0 si el producto no existe o si la versión ya cambió.
+     */
+    @Override
+    public int patch(Long id, ProductPatch patch, Long expectedVersion) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Product> update = cb.createCriteriaUpdate(Product.class);
+        Root<Product> product = update.from(Product.class);
+        Path<Long> version = product.get("version");
+
+        if (patch.sku() != null) {
+            update.set(product.<String>get("sku"), patch.sku());
+        }
+        if (patch.name() != null) {
+            update.set(product.<String>get("name"), patch.name());
+        }
+        if (patch.price() != null) {
+            update.set(product.<Integer>get("price"), patch.price());
+        }
+        if (patch.description() != null) {
+            update.set(product.<String>get("description"), patch.description());
+        }
+        update.set(version, cb.sum(version, 1L));
+
+        Predicate byId = cb.equal(product.get("id"), id);
+        update.where(expectedVersion == null ? byId : cb.and(byId, cb.equal(version, expectedVersion)));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private static List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Product> product, ProductFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter == null) {
+            return predicates;
+        }
+        Path<Integer> price = product.get("price");
+        if (filter.minPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(price, filter.minPrice()));
+        }
+        if (filter.maxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(price, filter.maxPrice()));
+        }
+        if (filter.skuPrefix() != null && !filter.skuPrefix().isEmpty()) {
+            predicates.add(cb.like(product.get("sku"), escapeLike(filter.skuPrefix()) + "%", '!'));
+        }
+        return predicates;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
@@ -1,12 +1,50 @@
 package com.app.springboot.springboot_crud.repositories;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 
 import com.app.springboot.springboot_crud.entities.User;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends CrudRepository<User, Long> {
+public interface UserRepository extends CrudRepository<User, Long>, PagingAndSortingRepository<User, Long> {
     boolean existsByUsername(String username);
 
+    /*
+     * Todos los usernames, para cargar el índice de unicidad al arrancar.
+     */
+    @Query("select u.username from User u")
+    List<String> findAllUsernames();
+
+    /*
+     * De los usernames recibidos devuelve los que ya existen, en una sola consulta
+     * IN (usado por el alta masiva de usuarios).
+     */
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
     Optional<User> findByUsername(String username);
+
+    /*
+     * Usuario con sus roles en una sola consulta (login).
+     */
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesByUsername(String username);
+
+    /*
+     * Paginación por keyset: ids de la siguiente página después del id indicado,
+     * opcionalmente filtrados por un prefijo de username (ya escapado con '!').
+     * Se piden solo ids para no combinar el join de roles con el límite.
+     */
+    @Query("select u.id from User u where u.id > :after and u.username like :prefix escape '!' order by u.id")
+    List<Long> findPageIds(@Param("after") Long after, @Param("prefix") String prefix, Pageable pageable);
+
+    @EntityGraph(attributePaths = "roles")
+    @Query("select u from User u where u.id in :ids order by u.id")
+    List<User> findAllWithRolesByIdIn(@Param("ids") Collection<Long> ids);
 }
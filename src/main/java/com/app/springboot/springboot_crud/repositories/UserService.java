@@ -2,11 +2,12 @@ package com.app.springboot.springboot_crud.repositories;
 
 import java.util.*;
 
+import com.app.springboot.springboot_crud.dto.CursorPage;
 import com.app.springboot.springboot_crud.entities.User;
 
 public interface UserService {
 
-    List<User> findAll();
+    CursorPage<User> findPage(Long after, int size, String usernamePrefix);
 
     User save(User user);
 
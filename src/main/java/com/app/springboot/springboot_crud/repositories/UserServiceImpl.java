@@ -5,12 +5,17 @@ import java.util.Optional;
 import java.util.ArrayList;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.app.springboot.springboot_crud.dto.CursorPage;
 import com.app.springboot.springboot_crud.entities.Role;
 import com.app.springboot.springboot_crud.entities.User;
+import com.app.springboot.springboot_crud.services.JpaUserDetailsService;
+import com.app.springboot.springboot_crud.services.RoleRegistry;
+import com.app.springboot.springboot_crud.services.UniqueKeyRegistry;
 
 @Service
 public class UserServiceImpl implements UserService {
@@ -19,33 +24,53 @@ public class UserServiceImpl implements UserService {
     private UserRepository repository;
 
     @Autowired
-    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JpaUserDetailsService userDetailsService;
+
+    @Autowired
+    private UniqueKeyRegistry uniqueKeys;
+
+    /*
+     * Paginación por keyset sobre id: se piden size + 1 ids para saber si hay otra
+     * página y luego se cargan esos usuarios con sus roles en una sola consulta. El
+     * costo es el mismo sin importar el tamaño de la tabla.
+     */
     @Transactional(readOnly = true)
     @Override
-    public List<User> findAll() {
-        List<User> users = (List<User>) repository.findAll();
-        users.forEach(user -> {
-            boolean isAdmin = user.getRoles().stream().anyMatch(rol -> rol.getName().equals("ROLE_ADMIN"));
-            user.setAdmin(isAdmin);
-        });
-        return users;
+    public CursorPage<User> findPage(Long after, int size, String usernamePrefix) {
+        String prefix = usernamePrefix == null ? "%" : escapeLike(usernamePrefix) + "%";
+        List<Long> ids = repository.findPageIds(after == null ? 0L : after, prefix, PageRequest.of(0, size + 1));
+
+        boolean hasNext = ids.size() > size;
+        if (hasNext) {
+            ids = ids.subList(0, size);
+        }
+
+        List<User> users = ids.isEmpty() ? List.of() : repository.findAllWithRolesByIdIn(ids);
+        users.forEach(user -> user.setAdmin(user.getRoles().stream()
+                .anyMatch(rol -> rol.getName().equals("ROLE_ADMIN"))));
+
+        String nextCursor = hasNext ? String.valueOf(ids.get(ids.size() - 1)) : null;
+        return new CursorPage<>(users, nextCursor);
     }
 
     @Transactional
     @Override
     public User save(User user) {
 
-        Optional<Role> optionalRoleUser = roleRepository.findByName("ROLE_USER");
+        // Los roles se leen del registro en memoria, sin consultar la base de datos
+        Optional<Role> optionalRoleUser = roleRegistry.find("ROLE_USER");
         List<Role> roles = new ArrayList<>();
 
         optionalRoleUser.ifPresent(roles::add);
 
         // if (user.isAdmin()) {
-        // Optional<Role> optionalRoleAdmin = roleRepository.findByName("ROLE_ADMIN");
+        // Optional<Role> optionalRoleAdmin = roleRegistry.find("ROLE_ADMIN");
         // optionalRoleAdmin.ifPresent(roles::add);
         // user.setAdmin(true);
         // }
@@ -55,12 +80,24 @@ public class UserServiceImpl implements UserService {
         String passwordEncoded = passwordEncoder.encode(user.getPassword());
         user.setPassword(passwordEncoded);
 
-        return repository.save(user);
+        User saved = repository.save(user);
+        // El username pudo estar en el cache negativo del login
+        userDetailsService.evict(saved.getUsername());
+        uniqueKeys.usernameAdded(saved.getUsername());
+        return saved;
     }
 
+    /*
+     * Resuelto por el índice de unicidad; solo consulta la base de datos si el
+     * username puede estar ocupado.
+     */
     @Override
     public boolean existsByUsername(String username) {
-        return repository.existsByUsername(username);
+        return uniqueKeys.usernameExists(username);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
     }
 
 }
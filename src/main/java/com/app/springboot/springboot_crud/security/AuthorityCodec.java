@@ -0,0 +1,74 @@
+package com.app.springboot.springboot_crud.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Codificación compacta de los roles dentro del JWT.
+ *
+ * En lugar de guardar un JSON embebido como texto
+ * ("[{\"authority\":\"ROLE_ADMIN\"},...]") el claim "rol" es un arreglo de
+ * códigos cortos: ["ADMIN","USER"]. El prefijo ROLE_ se omite; una autoridad
+ * que no sea un rol se guarda con el prefijo "~".
+ *
+ * Al decodificar se reutilizan siempre las mismas instancias de
+ * GrantedAuthority (internadas) y también la lista completa para cada
+ * combinación de roles, por lo que validar un token no crea objetos nuevos
+ * para los roles.
+ */
+public final class AuthorityCodec {
+
+    public static final String CLAIM_ROLES = "rol";
+    public static final String CLAIM_VERSION = "ver";
+    public static final int VERSION = 2;
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String PLAIN_PREFIX = "~";
+    private static final int MAX_COMBINATIONS = 256;
+
+    private static final ConcurrentHashMap<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<List<?>, List<GrantedAuthority>> COMBINATIONS = new ConcurrentHashMap<>();
+
+    private AuthorityCodec() {
+    }
+
+    public static List<String> encode(Collection<? extends GrantedAuthority> authorities) {
+        List<String> codes = new ArrayList<>(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            codes.add(name.startsWith(ROLE_PREFIX) ? name.substring(ROLE_PREFIX.length()) : PLAIN_PREFIX + name);
+        }
+        return codes;
+    }
+
+    public static List<GrantedAuthority> decode(Object claim) {
+        if (!(claim instanceof List<?> codes) || codes.isEmpty()) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = COMBINATIONS.get(codes);
+        if (authorities != null) {
+            return authorities;
+        }
+
+        List<GrantedAuthority> decoded = new ArrayList<>(codes.size());
+        for (Object code : codes) {
+            decoded.add(AUTHORITIES.computeIfAbsent(code.toString(), AuthorityCodec::toAuthority));
+        }
+        authorities = List.copyOf(decoded);
+        // Las combinaciones de roles son pocas; el tope evita crecer sin límite
+        if (COMBINATIONS.size() < MAX_COMBINATIONS) {
+            COMBINATIONS.putIfAbsent(List.copyOf(codes), authorities);
+        }
+        return authorities;
+    }
+
+    private static GrantedAuthority toAuthority(String code) {
+        return new SimpleGrantedAuthority(
+                code.startsWith(PLAIN_PREFIX) ? code.substring(PLAIN_PREFIX.length()) : ROLE_PREFIX + code);
+    }
+}
@@ -0,0 +1,14 @@
+package com.app.springboot.springboot_crud.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/*
+ * Cuerpo de login inválido (JSON mal formado, demasiado grande o sin
+ * credenciales); el filtro la traduce a un 400 sin intentar autenticar.
+ */
+public class BadLoginRequestException extends AuthenticationServiceException {
+
+    public BadLoginRequestException(String message) {
+        super(message);
+    }
+}
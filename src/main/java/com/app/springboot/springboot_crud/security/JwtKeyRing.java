@@ -0,0 +1,184 @@
+package com.app.springboot.springboot_crud.security;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.crypto.SecretKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.app.springboot.springboot_crud.security.JwtKeyRingProperties.KeyEntry;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Anillo de llaves para firmar y verificar los JWT.
+ *
+ * Antes la llave se generaba al azar al cargar TokenJwtConfig: cada nodo tenía
+ * una llave distinta y los tokens dejaban de ser válidos al reiniciar. Ahora
+ * las llaves se leen de la configuración (o de un keystore) y todos los nodos
+ * comparten el mismo anillo:
+ *
+ * - La llave activa firma los tokens nuevos y su id viaja en el encabezado kid.
+ * - Al verificar, el kid se busca en un mapa (O(1)) y se acepta cualquier llave
+ * del anillo, lo que permite rotar con ventanas superpuestas (verify-until).
+ * - HS256 usa un secreto en Base64; ES256/EdDSA usan llaves del keystore.
+ *
+ * Si no se configura ninguna llave se genera una HS256 aleatoria como antes,
+ * útil solo para desarrollo con un único nodo.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private record RingKey(String id, Key signingKey, Key verificationKey, Instant verifyUntil) {
+    }
+
+    private final Map<String, RingKey> keys;
+
+    private final RingKey active;
+
+    private final Locator<Key> locator = new LocatorAdapter<>() {
+        @Override
+        protected Key locate(JwsHeader header) {
+            return verificationKey(header.getKeyId());
+        }
+    };
+
+    public JwtKeyRing(JwtKeyRingProperties properties) throws GeneralSecurityException, IOException {
+        Map<String, RingKey> loaded = new HashMap<>();
+        KeyStore keyStore = loadKeyStore(properties);
+
+        for (KeyEntry entry : properties.getKeys()) {
+            RingKey key = load(entry, keyStore, properties);
+            if (loaded.putIfAbsent(key.id(), key) != null) {
+                throw new IllegalStateException(String.format("La llave JWT '%s' está repetida", key.id()));
+            }
+        }
+
+        if (loaded.isEmpty()) {
+            SecretKey random = Jwts.SIG.HS256.key().build();
+            String id = "local-" + UUID.randomUUID();
+            loaded.put(id, new RingKey(id, random, random, null));
+            log.warn("No hay llaves en jwt.key-ring.keys: se usa una llave aleatoria, los tokens no serán válidos"
+                    + " en otros nodos ni después de reiniciar");
+            this.active = loaded.get(id);
+        } else {
+            String activeId = properties.getActiveKeyId();
+            if (!StringUtils.hasText(activeId) && loaded.size() == 1) {
+                activeId = loaded.keySet().iterator().next();
+            }
+            this.active = loaded.get(activeId);
+            if (this.active == null || this.active.signingKey() == null) {
+                throw new IllegalStateException(
+                        String.format("jwt.key-ring.active-key-id '%s' no es una llave de firma del anillo", activeId));
+            }
+        }
+        this.keys = Map.copyOf(loaded);
+    }
+
+    /**
+     * Id de la llave activa, va en el encabezado kid de los tokens nuevos.
+     */
+    public String activeKeyId() {
+        return active.id();
+    }
+
+    /**
+     * Llave con la que se firman los tokens nuevos.
+     */
+    public Key signingKey() {
+        return active.signingKey();
+    }
+
+    /**
+     * Locator que usa el JwtParser para elegir la llave según el kid.
+     */
+    public Locator<Key> locator() {
+        return locator;
+    }
+
+    /**
+     * Hasta cuándo se aceptan los tokens firmados con la llave indicada (null si
+     * no tiene límite). Los tokens sin kid corresponden a la llave activa.
+     */
+    public Instant verifyUntil(String keyId) {
+        RingKey key = keyId == null ? active : keys.get(keyId);
+        return key == null ? Instant.EPOCH : key.verifyUntil();
+    }
+
+    private Key verificationKey(String keyId) {
+        // Tokens sin kid: solo pueden haber sido firmados con la llave activa
+        RingKey key = keyId == null ? active : keys.get(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException(String.format("La llave '%s' no pertenece al anillo", keyId));
+        }
+        if (key.verifyUntil() != null && Instant.now().isAfter(key.verifyUntil())) {
+            throw new UnsupportedJwtException(String.format("La llave '%s' ya fue retirada", keyId));
+        }
+        return key.verificationKey();
+    }
+
+    private static RingKey load(KeyEntry entry, KeyStore keyStore, JwtKeyRingProperties properties)
+            throws GeneralSecurityException {
+        if (!StringUtils.hasText(entry.getId())) {
+            throw new IllegalStateException("Cada llave de jwt.key-ring.keys necesita un id");
+        }
+
+        if (StringUtils.hasText(entry.getSecret())) {
+            SecretKey secret = Keys.hmacShaKeyFor(Decoders.BASE64.decode(entry.getSecret()));
+            return new RingKey(entry.getId(), secret, secret, entry.getVerifyUntil());
+        }
+
+        if (!StringUtils.hasText(entry.getAlias()) || keyStore == null) {
+            throw new IllegalStateException(
+                    String.format("La llave JWT '%s' necesita un secret o un alias del keystore", entry.getId()));
+        }
+
+        Key stored = keyStore.getKey(entry.getAlias(), password(properties));
+        if (stored instanceof SecretKey secret) {
+            return new RingKey(entry.getId(), secret, secret, entry.getVerifyUntil());
+        }
+        Certificate certificate = keyStore.getCertificate(entry.getAlias());
+        if (certificate == null) {
+            throw new IllegalStateException(
+                    String.format("El alias '%s' no existe en el keystore", entry.getAlias()));
+        }
+        PrivateKey privateKey = stored instanceof PrivateKey key ? key : null;
+        return new RingKey(entry.getId(), privateKey, certificate.getPublicKey(), entry.getVerifyUntil());
+    }
+
+    private static KeyStore loadKeyStore(JwtKeyRingProperties properties) throws GeneralSecurityException, IOException {
+        if (properties.getKeystoreLocation() == null) {
+            return null;
+        }
+        KeyStore keyStore = KeyStore.getInstance(properties.getKeystoreType());
+        try (InputStream in = properties.getKeystoreLocation().getInputStream()) {
+            keyStore.load(in, password(properties));
+        }
+        return keyStore;
+    }
+
+    private static char[] password(JwtKeyRingProperties properties) {
+        return properties.getKeystorePassword() == null ? null : properties.getKeystorePassword().toCharArray();
+    }
+}
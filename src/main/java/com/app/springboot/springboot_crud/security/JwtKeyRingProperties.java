@@ -0,0 +1,137 @@
+package com.app.springboot.springboot_crud.security;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuración del anillo de llaves JWT (prefijo jwt.key-ring).
+ *
+ * Ejemplo con una llave HMAC activa y otra anterior que solo se acepta para
+ * verificar durante la rotación:
+ *
+ * jwt.key-ring.active-key-id=2024-10
+ * jwt.key-ring.keys[0].id=2024-10
+ * jwt.key-ring.keys[0].secret=${JWT_KEY_2024_10}
+ * jwt.key-ring.keys[1].id=2024-09
+ * jwt.key-ring.keys[1].secret=${JWT_KEY_2024_09}
+ * jwt.key-ring.keys[1].verify-until=2024-10-31T00:00:00Z
+ *
+ * Para ES256/EdDSA las llaves se leen de un keystore (PKCS12) indicando el
+ * alias en lugar del secreto. Un alias que solo tiene certificado (sin llave
+ * privada) sirve únicamente para verificar.
+ */
+@Component
+@ConfigurationProperties(prefix = "jwt.key-ring")
+public class JwtKeyRingProperties {
+
+    private String activeKeyId;
+
+    private List<KeyEntry> keys = new ArrayList<>();
+
+    private Resource keystoreLocation;
+
+    private String keystorePassword;
+
+    private String keystoreType = "PKCS12";
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public void setActiveKeyId(String activeKeyId) {
+        this.activeKeyId = activeKeyId;
+    }
+
+    public List<KeyEntry> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<KeyEntry> keys) {
+        this.keys = keys;
+    }
+
+    public Resource getKeystoreLocation() {
+        return keystoreLocation;
+    }
+
+    public void setKeystoreLocation(Resource keystoreLocation) {
+        this.keystoreLocation = keystoreLocation;
+    }
+
+    public String getKeystorePassword() {
+        return keystorePassword;
+    }
+
+    public void setKeystorePassword(String keystorePassword) {
+        this.keystorePassword = keystorePassword;
+    }
+
+    public String getKeystoreType() {
+        return keystoreType;
+    }
+
+    public void setKeystoreType(String keystoreType) {
+        this.keystoreType = keystoreType;
+    }
+
+    public static class KeyEntry {
+
+        /*
+         * Identificador que viaja en el encabezado kid de cada token.
+         */
+        private String id;
+
+        /*
+         * Secreto HMAC (HS256) codificado en Base64, mínimo 256 bits.
+         */
+        private String secret;
+
+        /*
+         * Alias dentro del keystore para llaves ES256/EdDSA.
+         */
+        private String alias;
+
+        /*
+         * Fin de la ventana de rotación: después de este instante los tokens firmados
+         * con esta llave dejan de aceptarse. Vacío significa sin límite.
+         */
+        private Instant verifyUntil;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+
+        public String getAlias() {
+            return alias;
+        }
+
+        public void setAlias(String alias) {
+            this.alias = alias;
+        }
+
+        public Instant getVerifyUntil() {
+            return verifyUntil;
+        }
+
+        public void setVerifyUntil(Instant verifyUntil) {
+            this.verifyUntil = verifyUntil;
+        }
+    }
+}
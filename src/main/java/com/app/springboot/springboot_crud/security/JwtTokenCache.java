@@ -0,0 +1,95 @@
+package com.app.springboot.springboot_crud.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import com.app.springboot.springboot_crud.cache.ExpiringCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Cache de tokens JWT ya verificados.
+ *
+ * Verificar la firma HMAC y decodificar el claim de authorities en cada
+ * solicitud es costoso cuando el mismo cliente envía el mismo token miles de
+ * veces. Este componente guarda, por cada token ya validado, el
+ * UsernamePasswordAuthenticationToken listo para colocarse en el
+ * SecurityContext.
+ *
+ * La llave de cada entrada es el SHA-256 del token (no se guarda el token en
+ * memoria) y cada entrada vence en el mismo instante que el claim exp del
+ * token, o antes si la llave que lo firmó se retira (verify-until), por lo que
+ * un token expirado o de una llave retirada nunca se sirve desde el cache.
+ *
+ * Las entradas se guardan en un ExpiringCache acotado por
+ * jwt.cache.max-entries.
+ */
+@Component
+public class JwtTokenCache implements MeterBinder {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible en esta JVM", e);
+        }
+    });
+
+    /**
+     * Llave compacta: los 32 bytes del digest repartidos en cuatro long, así no
+     * se crea un String ni un arreglo por cada búsqueda.
+     */
+    public record Key(long h0, long h1, long h2, long h3) {
+    }
+
+    private final ExpiringCache<Key, UsernamePasswordAuthenticationToken> entries;
+
+    public JwtTokenCache(@Value("${jwt.cache.max-entries:10000}") int maxEntries) {
+        this.entries = new ExpiringCache<>(maxEntries);
+    }
+
+    /**
+     * Calcula la llave del cache para un token en bruto.
+     */
+    public Key keyOf(String token) {
+        MessageDigest digest = SHA_256.get();
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new Key(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    /**
+     * Devuelve la autenticación cacheada para la llave o null si no existe o ya
+     * expiró.
+     */
+    public UsernamePasswordAuthenticationToken get(Key key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Guarda la autenticación hasta expiration (ver
+     * JwtTokenEngine.cacheableUntil). Los tokens sin exp no se cachean.
+     */
+    public void put(Key key, UsernamePasswordAuthenticationToken authentication, Date expiration) {
+        if (expiration == null) {
+            return;
+        }
+        entries.put(key, authentication, expiration.getTime() - System.currentTimeMillis());
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        entries.bindTo(registry, "jwt.cache");
+    }
+}
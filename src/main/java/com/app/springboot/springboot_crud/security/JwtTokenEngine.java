@@ -0,0 +1,207 @@
+package com.app.springboot.springboot_crud.security;
+
+import static com.app.springboot.springboot_crud.security.TokenJwtConfig.CONTENT_TYPE;
+import static com.app.springboot.springboot_crud.security.TokenJwtConfig.PREFIX_TOKEN;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Motor de tokens JWT compartido por los filtros de autenticación y
+ * validación.
+ *
+ * Antes cada solicitud construía un JwtParser y un ObjectMapper nuevos (y el
+ * login creaba tres ObjectMapper). Aquí se construyen una sola vez:
+ *
+ * - JwtParser: inmutable y thread-safe una vez construido.
+ * - ObjectReader/ObjectWriter: versiones inmutables y thread-safe del
+ * ObjectMapper ya configuradas para cada tipo, por lo que no se vuelve a
+ * resolver el serializador/deserializador en cada uso.
+ */
+@Component
+public class JwtTokenEngine {
+
+    private static final long EXPIRATION_MILLIS = 3600000;
+
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+    private final ObjectReader authoritiesReader;
+    private final JsonFactory jsonFactory;
+    private final int maxLoginBodyBytes;
+    private final ObjectWriter bodyWriter;
+
+    public JwtTokenEngine(JwtKeyRing keyRing, @Value("${login.max-body-bytes:4096}") int maxLoginBodyBytes) {
+        this.keyRing = keyRing;
+        // La llave de verificación se elige por el kid del token (ver JwtKeyRing)
+        this.parser = Jwts.parser().keyLocator(keyRing.locator()).build();
+
+        ObjectMapper mapper = new ObjectMapper()
+                .addMixIn(SimpleGrantedAuthority.class, SimpleGrantedAuthorityJsonCreator.class)
+                // El stream de la respuesta lo cierra el contenedor, no Jackson
+                .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+        this.authoritiesReader = mapper.readerFor(SimpleGrantedAuthority[].class);
+        this.jsonFactory = mapper.getFactory();
+        this.maxLoginBodyBytes = maxLoginBodyBytes;
+        this.bodyWriter = mapper.writerFor(Map.class);
+    }
+
+    /**
+     * Devuelve el token contenido en un encabezado "Bearer ..." sin crear copias
+     * intermedias (el encabezado ya fue validado con startsWith).
+     */
+    public String extractToken(String header) {
+        return header.substring(PREFIX_TOKEN.length());
+    }
+
+    /**
+     * Verifica la firma del token y devuelve sus claims.
+     */
+    public Claims parse(String token) throws JwtException {
+        return parseSigned(token).getPayload();
+    }
+
+    /**
+     * Igual que parse, pero conserva el encabezado (kid).
+     */
+    public Jws<Claims> parseSigned(String token) throws JwtException {
+        return parser.parseSignedClaims(token);
+    }
+
+    /**
+     * Hasta cuándo se puede cachear la autenticación de un token ya verificado:
+     * su exp, pero nunca más allá del verify-until de la llave que lo firmó. Así
+     * retirar una llave también invalida los tokens cacheados con ella.
+     */
+    public Date cacheableUntil(Jws<Claims> jws) {
+        Date expiration = jws.getPayload().getExpiration();
+        Instant verifyUntil = keyRing.verifyUntil(jws.getHeader().getKeyId());
+        if (expiration == null || verifyUntil == null) {
+            return expiration;
+        }
+        Date keyLimit = Date.from(verifyUntil);
+        return keyLimit.before(expiration) ? keyLimit : expiration;
+    }
+
+    /**
+     * Obtiene los roles de los claims del token. Los tokens con el marcador de
+     * versión usan el formato compacto de AuthorityCodec; los anteriores traen el
+     * claim "authorities" como un JSON y se siguen aceptando.
+     */
+    public Collection<? extends GrantedAuthority> readAuthorities(Claims claims) throws IOException {
+        if (claims.get(AuthorityCodec.CLAIM_VERSION) instanceof Number version
+                && version.intValue() == AuthorityCodec.VERSION) {
+            return AuthorityCodec.decode(claims.get(AuthorityCodec.CLAIM_ROLES));
+        }
+
+        Object authoritiesClaim = claims.get("authorities");
+        if (authoritiesClaim == null) {
+            return List.of();
+        }
+        SimpleGrantedAuthority[] authorities = authoritiesReader.readValue(authoritiesClaim.toString());
+        return Arrays.asList(authorities);
+    }
+
+    /**
+     * Crea y firma un token de acceso para el usuario con sus roles. El nombre de
+     * usuario viaja solo en el subject.
+     */
+    public String createToken(String username, Collection<? extends GrantedAuthority> roles) {
+        Claims claims = Jwts.claims()
+                .add(AuthorityCodec.CLAIM_VERSION, AuthorityCodec.VERSION)
+                .add(AuthorityCodec.CLAIM_ROLES, AuthorityCodec.encode(roles))
+                .build();
+
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .header().keyId(keyRing.activeKeyId()).and()
+                .subject(username)
+                .claims(claims)
+                .expiration(new Date(now + EXPIRATION_MILLIS))
+                .issuedAt(new Date(now))
+                .signWith(keyRing.signingKey())
+                .compact();
+    }
+
+    /**
+     * Lee las credenciales del cuerpo del login con el parser de streaming de
+     * Jackson: solo se extraen username y password (el resto se salta) y el cuerpo
+     * no puede superar login.max-body-bytes. Cualquier problema termina en
+     * BadLoginRequestException antes de intentar autenticar.
+     */
+    public LoginRequest readLogin(HttpServletRequest request) throws BadLoginRequestException {
+        if (request.getContentLengthLong() > maxLoginBodyBytes) {
+            throw new BadLoginRequestException("El cuerpo del login es demasiado grande");
+        }
+
+        String username = null;
+        String password = null;
+        try {
+            byte[] body = request.getInputStream().readNBytes(maxLoginBodyBytes + 1);
+            if (body.length > maxLoginBodyBytes) {
+                throw new BadLoginRequestException("El cuerpo del login es demasiado grande");
+            }
+
+            try (JsonParser parser = jsonFactory.createParser(body)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new BadLoginRequestException("El cuerpo del login debe ser un objeto JSON");
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("username".equals(field) && value == JsonToken.VALUE_STRING) {
+                        username = parser.getText();
+                    } else if ("password".equals(field) && value == JsonToken.VALUE_STRING) {
+                        password = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new BadLoginRequestException("El cuerpo del login no es un JSON válido");
+        }
+
+        if (!StringUtils.hasText(username) || !StringUtils.hasText(password)) {
+            throw new BadLoginRequestException("username y password son requeridos");
+        }
+        return new LoginRequest(username, password);
+    }
+
+    /**
+     * Escribe un cuerpo JSON directamente en el stream de la respuesta, sin pasar
+     * por un String intermedio.
+     */
+    public void writeBody(HttpServletResponse response, int status, Map<String, ?> body) throws IOException {
+        response.setStatus(status);
+        response.setContentType(CONTENT_TYPE);
+        bodyWriter.writeValue(response.getOutputStream(), body);
+    }
+}
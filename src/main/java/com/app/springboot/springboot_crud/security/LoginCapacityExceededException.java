@@ -0,0 +1,21 @@
+package com.app.springboot.springboot_crud.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/*
+ * Se lanza cuando el executor de login está saturado; el filtro la traduce a un
+ * 503 con el encabezado Retry-After.
+ */
+public class LoginCapacityExceededException extends AuthenticationServiceException {
+
+    private final long retryAfterSeconds;
+
+    public LoginCapacityExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
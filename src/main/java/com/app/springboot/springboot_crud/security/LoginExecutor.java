@@ -0,0 +1,149 @@
+package com.app.springboot.springboot_crud.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Executor acotado para autenticar los logins.
+ *
+ * La verificación BCrypt consume mucha CPU; si corre en los hilos de Tomcat una
+ * ráfaga de logins deja sin CPU al resto de la API. Aquí la autenticación se
+ * ejecuta en un número fijo de hilos con una cola limitada: cuando la cola se
+ * llena el login se rechaza de inmediato (503 + Retry-After) en lugar de
+ * acumular latencia para todos. El hilo de la solicitud espera como máximo
+ * login.executor.timeout-millis; si la autenticación no termina a tiempo se
+ * cancela y también se responde 503.
+ */
+@Component
+public class LoginExecutor implements MeterBinder, DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+
+    private final long retryAfterSeconds;
+
+    private final long timeoutMillis;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder timedOut = new LongAdder();
+
+    private volatile Timer hashTimer;
+
+    private volatile Timer waitTimer;
+
+    public LoginExecutor(@Value("${login.executor.threads:0}") int threads,
+            @Value("${login.executor.queue-capacity:200}") int queueCapacity,
+            @Value("${login.executor.retry-after-seconds:2}") long retryAfterSeconds,
+            @Value("${login.executor.timeout-millis:10000}") long timeoutMillis) {
+        // Por defecto la mitad de los núcleos, el resto queda para la API
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Ejecuta la autenticación en el executor y espera su resultado. Las
+     * AuthenticationException (credenciales inválidas, etc.) se propagan tal
+     * cual.
+     */
+    public Authentication authenticate(Supplier<Authentication> authentication) throws AuthenticationException {
+        long submittedAt = System.nanoTime();
+        Future<Authentication> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                record(waitTimer, startedAt - submittedAt);
+                try {
+                    return authentication.get();
+                } finally {
+                    record(hashTimer, System.nanoTime() - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new LoginCapacityExceededException("Demasiados inicios de sesión simultáneos, intente más tarde",
+                    retryAfterSeconds);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Interrumpe el hilo del executor; BCrypt no se detiene, pero la consulta
+            // JDBC sí y el hilo de la solicitud queda libre
+            future.cancel(true);
+            timedOut.increment();
+            throw new LoginCapacityExceededException("El inicio de sesión tardó demasiado, intente más tarde",
+                    retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("El inicio de sesión fue interrumpido", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new AuthenticationServiceException(cause.getMessage(), cause);
+        }
+    }
+
+    private static void record(Timer timer, long nanos) {
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.hashTimer = Timer.builder("login.authentication.duration")
+                .description("Tiempo de autenticación (consulta + BCrypt) en el executor de login")
+                .register(registry);
+        this.waitTimer = Timer.builder("login.queue.wait")
+                .description("Tiempo que un login espera en la cola")
+                .register(registry);
+        Gauge.builder("login.queue.depth", executor, e -> e.getQueue().size())
+                .register(registry);
+        Gauge.builder("login.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+        FunctionCounter.builder("login.rejected", rejected, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("login.timeouts", timedOut, LongAdder::sum)
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
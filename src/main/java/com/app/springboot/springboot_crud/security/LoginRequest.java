@@ -0,0 +1,8 @@
+package com.app.springboot.springboot_crud.security;
+
+/*
+ * Credenciales del login. Reemplaza a la entidad User (con sus validaciones y
+ * su lista de roles) como destino del cuerpo de /login.
+ */
+public record LoginRequest(String username, String password) {
+}
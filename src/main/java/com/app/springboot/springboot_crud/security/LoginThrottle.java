@@ -0,0 +1,184 @@
+package com.app.springboot.springboot_crud.security;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Limitador de intentos de login por username y por dirección IP.
+ *
+ * Cada llave tiene un token bucket: capacity intentos seguidos y luego
+ * refill-per-minute intentos por minuto. El estado del bucket es inmutable y
+ * se reemplaza con compareAndSet, así que no hay locks en el camino del login.
+ *
+ * Los intentos rechazados no llegan al AuthenticationManager: no consultan la
+ * base de datos ni ejecutan BCrypt. La memoria está acotada por max-keys; al
+ * superarse se eliminan solo las llaves que ya recuperaron todos sus intentos
+ * o que llevan idle-minutes sin actividad. Si aun así el mapa está lleno, las
+ * llaves nuevas se rechazan: descartar buckets activos permitiría que quien
+ * envía usernames al azar reinicie el bucket que está atacando.
+ *
+ * La dirección es request.getRemoteAddr(); detrás de un proxy o balanceador
+ * depende de server.forward-headers-strategy (ver application.properties).
+ */
+@Component
+public class LoginThrottle implements MeterBinder {
+
+    private record State(double tokens, long updatedAt) {
+    }
+
+    private static final class Bucket {
+        private final Limit limit;
+        private final AtomicReference<State> state;
+
+        private Bucket(Limit limit, long now) {
+            this.limit = limit;
+            this.state = new AtomicReference<>(new State(limit.capacity, now));
+        }
+    }
+
+    /*
+     * Intervalo mínimo entre dos recorridos de evictIdle, para que una ráfaga de
+     * llaves nuevas con el mapa lleno no recorra el mapa en cada intento.
+     */
+    private static final long EVICTION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final class Limit {
+        private final double capacity;
+        private final double tokensPerNano;
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        private Limit(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        }
+    }
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final Limit usernameLimit;
+
+    private final Limit addressLimit;
+
+    private final int maxKeys;
+
+    private final long idleNanos;
+
+    private final AtomicLong lastEviction = new AtomicLong(System.nanoTime() - EVICTION_INTERVAL_NANOS);
+
+    private final LongAdder keysRejected = new LongAdder();
+
+    public LoginThrottle(@Value("${login.throttle.username.capacity:5}") int usernameCapacity,
+            @Value("${login.throttle.username.refill-per-minute:5}") int usernameRefill,
+            @Value("${login.throttle.address.capacity:20}") int addressCapacity,
+            @Value("${login.throttle.address.refill-per-minute:30}") int addressRefill,
+            @Value("${login.throttle.max-keys:100000}") int maxKeys,
+            @Value("${login.throttle.idle-minutes:15}") long idleMinutes) {
+        this.usernameLimit = new Limit(usernameCapacity, usernameRefill);
+        this.addressLimit = new Limit(addressCapacity, addressRefill);
+        this.maxKeys = maxKeys;
+        this.idleNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+    }
+
+    /**
+     * Verifica el límite por dirección IP; se llama antes de leer el cuerpo.
+     */
+    public void checkAddress(String address) throws LoginThrottledException {
+        check("ip:" + address, addressLimit);
+    }
+
+    /**
+     * Verifica el límite por username (sin distinguir mayúsculas).
+     */
+    public void checkUsername(String username) throws LoginThrottledException {
+        if (username != null) {
+            check("user:" + username.toLowerCase(Locale.ROOT), usernameLimit);
+        }
+    }
+
+    private void check(String key, Limit limit) {
+        long now = System.nanoTime();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                evictIdle(now);
+                if (buckets.size() >= maxKeys) {
+                    keysRejected.increment();
+                    limit.rejected.increment();
+                    throw new LoginThrottledException("Demasiados intentos de inicio de sesión, intente más tarde",
+                            TimeUnit.NANOSECONDS.toSeconds(EVICTION_INTERVAL_NANOS));
+                }
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(limit, now));
+        }
+
+        while (true) {
+            State current = bucket.state.get();
+            double tokens = Math.min(limit.capacity,
+                    current.tokens() + (now - current.updatedAt()) * limit.tokensPerNano);
+            if (tokens < 1) {
+                limit.rejected.increment();
+                long retryAfter = (long) Math.ceil((1 - tokens) / limit.tokensPerNano / 1_000_000_000d);
+                throw new LoginThrottledException("Demasiados intentos de inicio de sesión, intente más tarde",
+                        Math.max(1, retryAfter));
+            }
+            if (bucket.state.compareAndSet(current, new State(tokens - 1, now))) {
+                limit.allowed.increment();
+                return;
+            }
+        }
+    }
+
+    /*
+     * Elimina las llaves cuyo bucket ya está lleno (quitarlas no cambia nada: una
+     * llave nueva empieza igual) o sin actividad en idle-minutes. Nunca descarta
+     * buckets activos con intentos consumidos.
+     */
+    private void evictIdle(long now) {
+        long last = lastEviction.get();
+        if (now - last < EVICTION_INTERVAL_NANOS || !lastEviction.compareAndSet(last, now)) {
+            return;
+        }
+        buckets.forEach((key, bucket) -> {
+            State state = bucket.state.get();
+            double tokens = state.tokens() + (now - state.updatedAt()) * bucket.limit.tokensPerNano;
+            if (tokens >= bucket.limit.capacity || now - state.updatedAt() > idleNanos) {
+                buckets.remove(key, bucket);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "username", usernameLimit);
+        bind(registry, "address", addressLimit);
+        Gauge.builder("login.throttle.keys", buckets, ConcurrentHashMap::size)
+                .register(registry);
+        FunctionCounter.builder("login.throttle.keys.rejected", keysRejected, LongAdder::sum)
+                .description("Intentos de llaves nuevas rechazados con el mapa lleno")
+                .register(registry);
+    }
+
+    private static void bind(MeterRegistry registry, String scope, Limit limit) {
+        FunctionCounter.builder("login.throttle.attempts", limit.allowed, LongAdder::sum)
+                .tag("scope", scope)
+                .tag("result", "allowed")
+                .register(registry);
+        FunctionCounter.builder("login.throttle.attempts", limit.rejected, LongAdder::sum)
+                .tag("scope", scope)
+                .tag("result", "rejected")
+                .register(registry);
+    }
+}
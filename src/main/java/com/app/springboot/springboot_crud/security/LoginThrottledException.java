@@ -0,0 +1,21 @@
+package com.app.springboot.springboot_crud.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/*
+ * Se lanza cuando un username o una dirección IP superan el límite de intentos
+ * de login; el filtro la traduce a un 429 con el encabezado Retry-After.
+ */
+public class LoginThrottledException extends AuthenticationServiceException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,8 +1,11 @@
 package com.app.springboot.springboot_crud.security;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,7 +18,9 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 // import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -24,6 +29,7 @@ import org.springframework.web.filter.CorsFilter;
 
 import com.app.springboot.springboot_crud.security.filter.JwtAutheticationFilter;
 import com.app.springboot.springboot_crud.security.filter.JwtValidationFilter;
+import com.app.springboot.springboot_crud.services.RefreshTokenService;
 
 @Configuration
 /*
@@ -89,6 +95,21 @@ public class SpringSecurityConfig {
     @Autowired
     private AuthenticationConfiguration authenticationConfiguration;
 
+    @Autowired
+    private JwtTokenCache tokenCache;
+
+    @Autowired
+    private JwtTokenEngine tokenEngine;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private LoginExecutor loginExecutor;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
     /*
      * @Bean:
      * 
@@ -139,9 +160,30 @@ public class SpringSecurityConfig {
      * Este bean se utiliza típicamente en aplicaciones que requieren seguridad,
      * como aquellas que gestionan autenticación de usuarios.
      */
+    /*
+     * DelegatingPasswordEncoder: los hashes se guardan con el prefijo del algoritmo
+     * ({bcrypt}..., {pbkdf2}...) y el costo de cada algoritmo es configurable. Los
+     * hashes antiguos sin prefijo se verifican con BCrypt.
+     * 
+     * Cuando un hash usa otro algoritmo o un costo BCrypt menor al configurado,
+     * Spring Security lo vuelve a generar tras un login exitoso mediante
+     * UserDetailsPasswordService (implementado en JpaUserDetailsService). Los
+     * costos se eligen con PasswordEncoderBenchmark (src/test).
+     */
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    PasswordEncoder passwordEncoder(@Value("${security.password.encoder:bcrypt}") String encodingId,
+            @Value("${security.password.bcrypt.strength:10}") int bcryptStrength,
+            @Value("${security.password.pbkdf2.iterations:310000}") int pbkdf2Iterations) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(encodingId, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
     }
 
     /*
@@ -219,6 +261,9 @@ public class SpringSecurityConfig {
                 // Permite todas las solicitudes GET a la ruta "/api/users" sin autenticación
                 .requestMatchers(HttpMethod.GET, "/api/users").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/users/register").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/auth/refresh").permitAll()
+                // Las métricas (cache de tokens, etc.) solo para administradores
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // Permite todas las solicitudes POST a la ruta "/api/users/register" sin
                 // autenticación
                 // .requestMatchers(HttpMethod.POST, "/api/users/register").permitAll()
@@ -231,8 +276,9 @@ public class SpringSecurityConfig {
                 // Requiere autenticación para cualquier otra solicitud
                 .anyRequest().authenticated())
                 // Añadimos el filtro de seguridad creado
-                .addFilter(new JwtAutheticationFilter(authenticationManager()))
-                .addFilter(new JwtValidationFilter(authenticationManager()))
+                .addFilter(new JwtAutheticationFilter(authenticationManager(), tokenEngine, refreshTokenService,
+                        loginExecutor, loginThrottle))
+                .addFilter(new JwtValidationFilter(authenticationManager(), tokenCache, tokenEngine))
                 // Desactiva la protección CSRF
                 .csrf(config -> config.disable())
                 .cors(cors -> cors.configurationSource(configurationSource()))
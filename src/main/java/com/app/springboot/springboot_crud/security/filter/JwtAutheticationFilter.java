@@ -1,11 +1,11 @@
 package com.app.springboot.springboot_crud.security.filter;
 
 import java.io.IOException;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Collection;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -14,13 +14,15 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
-import com.app.springboot.springboot_crud.entities.User;
-import com.fasterxml.jackson.core.exc.StreamReadException;
-import com.fasterxml.jackson.databind.DatabindException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.app.springboot.springboot_crud.security.BadLoginRequestException;
+import com.app.springboot.springboot_crud.security.JwtTokenEngine;
+import com.app.springboot.springboot_crud.security.LoginCapacityExceededException;
+import com.app.springboot.springboot_crud.security.LoginExecutor;
+import com.app.springboot.springboot_crud.security.LoginRequest;
+import com.app.springboot.springboot_crud.security.LoginThrottle;
+import com.app.springboot.springboot_crud.security.LoginThrottledException;
+import com.app.springboot.springboot_crud.services.RefreshTokenService;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -107,17 +109,33 @@ public class JwtAutheticationFilter extends UsernamePasswordAuthenticationFilter
      */
     private AuthenticationManager authenticationManager;
 
-    public JwtAutheticationFilter(AuthenticationManager authenticationManager) {
+    private final JwtTokenEngine tokenEngine;
+
+    private final RefreshTokenService refreshTokenService;
+
+    private final LoginExecutor loginExecutor;
+
+    private final LoginThrottle loginThrottle;
+
+    public JwtAutheticationFilter(AuthenticationManager authenticationManager, JwtTokenEngine tokenEngine,
+            RefreshTokenService refreshTokenService, LoginExecutor loginExecutor, LoginThrottle loginThrottle) {
         this.authenticationManager = authenticationManager;
+        this.tokenEngine = tokenEngine;
+        this.refreshTokenService = refreshTokenService;
+        this.loginExecutor = loginExecutor;
+        this.loginThrottle = loginThrottle;
     }
 
     @Override
     public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response)
             throws AuthenticationException {
 
-        User user = null;
-        String username = null;
-        String password = null;
+        /*
+         * El límite por IP se verifica antes de leer el cuerpo; el límite por username
+         * después. Un intento rechazado nunca llega al AuthenticationManager (ni a la
+         * base de datos ni a BCrypt).
+         */
+        loginThrottle.checkAddress(request.getRemoteAddr());
 
         /*
          * ObjectMapper es una clase fundamental en la biblioteca Jackson (parte de
@@ -129,18 +147,17 @@ public class JwtAutheticationFilter extends UsernamePasswordAuthenticationFilter
          * (serialización) y para convertir JSON en objetos Java (deserialización). Es
          * una herramienta muy poderosa y flexible que facilita trabajar con JSON en
          * aplicaciones Java.
+         * 
+         * Aquí ya no se usa ObjectMapper ni la entidad User: JwtTokenEngine lee solo
+         * username y password con el parser de streaming de Jackson, con un límite de
+         * tamaño. Un cuerpo inválido lanza BadLoginRequestException (400) sin intentar
+         * autenticar.
          */
-        try {
-            user = new ObjectMapper().readValue(request.getInputStream(), User.class);
-            username = user.getUsername();
-            password = user.getPassword();
-        } catch (StreamReadException e) {
-            e.printStackTrace();
-        } catch (DatabindException e) {
-            e.printStackTrace();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        LoginRequest login = tokenEngine.readLogin(request);
+        String username = login.username();
+        String password = login.password();
+
+        loginThrottle.checkUsername(username);
 
         /*
          * UsernamePasswordAuthenticationToken es una clase en Spring Security que
@@ -177,7 +194,12 @@ public class JwtAutheticationFilter extends UsernamePasswordAuthenticationFilter
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(username,
                 password);
 
-        return authenticationManager.authenticate(authenticationToken);
+        /*
+         * La autenticación (consulta del usuario + BCrypt) se ejecuta en el executor
+         * acotado de login para no competir por CPU con los hilos de la API. Si está
+         * saturado se lanza LoginCapacityExceededException.
+         */
+        return loginExecutor.authenticate(() -> authenticationManager.authenticate(authenticationToken));
     }
 
     /*
@@ -249,10 +271,6 @@ public class JwtAutheticationFilter extends UsernamePasswordAuthenticationFilter
          * roles es el valor de la reclamación. En este caso, es la colección de
          * autoridades (roles/privilegios) del usuario autenticado.
          */
-        Claims claims = Jwts.claims()
-                .add("authorities", new ObjectMapper().writeValueAsString(roles))
-                .add("username", username)
-                .build();
 
         /*
          * Jwts.builder(): Inicia la construcción del JWT.
@@ -265,14 +283,16 @@ public class JwtAutheticationFilter extends UsernamePasswordAuthenticationFilter
          * .issuedAt(new Date()): Es la fecha cuando se creo el Token
          * .signWith(SECRET_KEY): Firma el token con la clave secreta SECRET_KEY.
          * .compact(): Construye y serializa el token en una cadena compacta.
+         * 
+         * Todo esto se realiza en JwtTokenEngine.createToken.
          */
-        String token = Jwts.builder()
-                .subject(username)
-                .claims(claims)
-                .expiration(new Date(System.currentTimeMillis() + 3600000))
-                .issuedAt(new Date())
-                .signWith(SECRET_KEY)
-                .compact();
+        String token = tokenEngine.createToken(username, roles);
+
+        /*
+         * El refresh token permite renovar el JWT en /api/auth/refresh sin volver a
+         * enviar la contraseña.
+         */
+        String refreshToken = refreshTokenService.issue(username);
 
         /*
          * response.addHeader("Authorization", "Bearer " + token): Agrega un encabezado
@@ -281,6 +301,7 @@ public class JwtAutheticationFilter extends UsernamePasswordAuthenticationFilter
         response.addHeader(HEADER_AUTHORIZATION, PREFIX_TOKEN + token);
         Map<String, String> body = new HashMap<>();
         body.put("token", token);
+        body.put("refreshToken", refreshToken);
         body.put("username", username);
         body.put("message", String.format("Hola %s has iniciado sesión con éxito", username));
 
@@ -292,9 +313,7 @@ public class JwtAutheticationFilter extends UsernamePasswordAuthenticationFilter
          * response.setStatus(200): Establece el código de estado de la respuesta a 200
          * (OK).
          */
-        response.getWriter().write(new ObjectMapper().writeValueAsString(body));
-        response.setContentType(CONTENT_TYPE);
-        response.setStatus(200);
+        tokenEngine.writeBody(response, HttpStatus.OK.value(), body);
     }
 
     /**
@@ -324,6 +343,32 @@ public class JwtAutheticationFilter extends UsernamePasswordAuthenticationFilter
     protected void unsuccessfulAuthentication(HttpServletRequest request, HttpServletResponse response,
             AuthenticationException failed) throws IOException, ServletException {
 
+        if (failed instanceof LoginCapacityExceededException capacity) {
+            Map<String, String> body = new HashMap<>();
+            body.put("message", "El servicio de autenticación está saturado, intente más tarde");
+            body.put("error", capacity.getMessage());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(capacity.getRetryAfterSeconds()));
+            tokenEngine.writeBody(response, HttpStatus.SERVICE_UNAVAILABLE.value(), body);
+            return;
+        }
+
+        if (failed instanceof BadLoginRequestException badRequest) {
+            Map<String, String> body = new HashMap<>();
+            body.put("message", "Solicitud de login inválida");
+            body.put("error", badRequest.getMessage());
+            tokenEngine.writeBody(response, HttpStatus.BAD_REQUEST.value(), body);
+            return;
+        }
+
+        if (failed instanceof LoginThrottledException throttled) {
+            Map<String, String> body = new HashMap<>();
+            body.put("message", "Demasiados intentos de inicio de sesión");
+            body.put("error", throttled.getMessage());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(throttled.getRetryAfterSeconds()));
+            tokenEngine.writeBody(response, HttpStatus.TOO_MANY_REQUESTS.value(), body);
+            return;
+        }
+
         Map<String, String> body = new HashMap<>();
         body.put("Message", "Error en la autenticación, username o password incorrectos!");
         body.put("error", failed.getMessage());
@@ -343,8 +388,6 @@ public class JwtAutheticationFilter extends UsernamePasswordAuthenticationFilter
          * una constante que define el tipo de contenido,
          * "application/json".
          */
-        response.getWriter().write(new ObjectMapper().writeValueAsString(body));
-        response.setStatus(HttpStatus.UNAUTHORIZED.value());
-        response.setContentType(CONTENT_TYPE);
+        tokenEngine.writeBody(response, HttpStatus.UNAUTHORIZED.value(), body);
     }
 }
@@ -1,12 +1,9 @@
 package com.app.springboot.springboot_crud.security.filter;
 
-import static com.app.springboot.springboot_crud.security.TokenJwtConfig.CONTENT_TYPE;
 import static com.app.springboot.springboot_crud.security.TokenJwtConfig.HEADER_AUTHORIZATION;
 import static com.app.springboot.springboot_crud.security.TokenJwtConfig.PREFIX_TOKEN;
-import static com.app.springboot.springboot_crud.security.TokenJwtConfig.SECRET_KEY;
 
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,16 +12,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
-import com.app.springboot.springboot_crud.security.SimpleGrantedAuthorityJsonCreator;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.app.springboot.springboot_crud.security.JwtTokenCache;
+import com.app.springboot.springboot_crud.security.JwtTokenEngine;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -61,8 +57,15 @@ public class JwtValidationFilter extends BasicAuthenticationFilter {
      * constructor toma un AuthenticationManager como parámetro y lo pasa al
      * constructor de la clase base BasicAuthenticationFilter
      */
-    public JwtValidationFilter(AuthenticationManager authenticationManager) {
+    private final JwtTokenCache tokenCache;
+
+    private final JwtTokenEngine tokenEngine;
+
+    public JwtValidationFilter(AuthenticationManager authenticationManager, JwtTokenCache tokenCache,
+            JwtTokenEngine tokenEngine) {
         super(authenticationManager);
+        this.tokenCache = tokenCache;
+        this.tokenEngine = tokenEngine;
     }
 
     /*
@@ -89,10 +92,25 @@ public class JwtValidationFilter extends BasicAuthenticationFilter {
         }
 
         /*
-         * header.replace(PREFIX_TOKEN, ""): Elimina el prefijo del token para obtener
-         * el token JWT real.
+         * Si el token ya fue verificado antes y no ha expirado se reutiliza la
+         * autenticación cacheada y se evita verificar la firma y decodificar los
+         * authorities de nuevo. La llave se calcula sobre el encabezado completo (todos
+         * comparten el mismo prefijo), así en un acierto ni siquiera se extrae el
+         * token.
+         */
+        JwtTokenCache.Key cacheKey = tokenCache.keyOf(header);
+        UsernamePasswordAuthenticationToken cached = tokenCache.get(cacheKey);
+        if (cached != null) {
+            SecurityContextHolder.getContext().setAuthentication(cached);
+            chain.doFilter(request, response);
+            return;
+        }
+
+        /*
+         * extractToken(header): Elimina el prefijo "Bearer " para obtener el token JWT
+         * real (un substring, sin el recorrido completo que hacía replace).
          */
-        String token = header.replace(PREFIX_TOKEN, "");
+        String token = tokenEngine.extractToken(header);
 
         try {
             /*
@@ -105,14 +123,15 @@ public class JwtValidationFilter extends BasicAuthenticationFilter {
              * build().parseSignedClaims(token): Verifica y parsea el token, obteniendo los
              * Claims.
              * claims.getPayload(): Obtiene el contenido del token JWT.
+             * 
+             * El parser se construye una sola vez en JwtTokenEngine y se reutiliza.
              */
-            Claims claims = Jwts.parser().verifyWith(SECRET_KEY).build().parseSignedClaims(token).getPayload();
+            Jws<Claims> jws = tokenEngine.parseSigned(token);
+            Claims claims = jws.getPayload();
             /*
              * Obtiene el nombre de usuario del campo subject en los claims del token.
              */
             String username = claims.getSubject();
-            // String username2 = (String) claims.get("username");
-            Object authoritiesClaims = claims.get("authorities");
 
             /*
              * new ObjectMapper(): Crea un nuevo ObjectMapper de Jackson para convertir
@@ -123,10 +142,11 @@ public class JwtValidationFilter extends BasicAuthenticationFilter {
              * .readValue(authoritiesClaims.toString().getBytes(),
              * SimpleGrantedAuthority[].class): Convierte los claims de authorities a una
              * colección de SimpleGrantedAuthority.
+             * 
+             * El lector ya configurado con el mixin vive en JwtTokenEngine, que además
+             * entiende el formato compacto de roles (ver AuthorityCodec).
              */
-            Collection<? extends GrantedAuthority> authorities = Arrays.asList(new ObjectMapper()
-                    .addMixIn(SimpleGrantedAuthority.class, SimpleGrantedAuthorityJsonCreator.class)
-                    .readValue(authoritiesClaims.toString().getBytes(), SimpleGrantedAuthority[].class));
+            Collection<? extends GrantedAuthority> authorities = tokenEngine.readAuthorities(claims);
 
             /*
              * new UsernamePasswordAuthenticationToken(username, null, authorities): Crea un
@@ -138,6 +158,8 @@ public class JwtValidationFilter extends BasicAuthenticationFilter {
              */
             UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(username,
                     null, authorities);
+            // Vence con el token o con el retiro de su llave, lo que llegue antes
+            tokenCache.put(cacheKey, authenticationToken, tokenEngine.cacheableUntil(jws));
             SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             chain.doFilter(request, response);
         } catch (JwtException e) {
@@ -161,9 +183,7 @@ public class JwtValidationFilter extends BasicAuthenticationFilter {
             body.put("error", e.getMessage());
             body.put("message", "El token Jwt es invalido!");
 
-            response.getWriter().write(new ObjectMapper().writeValueAsString(body));
-            response.setStatus(HttpStatus.UNAUTHORIZED.value());
-            response.setContentType(CONTENT_TYPE);
+            tokenEngine.writeBody(response, HttpStatus.UNAUTHORIZED.value(), body);
         }
 
     }
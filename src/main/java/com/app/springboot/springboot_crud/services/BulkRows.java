@@ -0,0 +1,176 @@
+package com.app.springboot.springboot_crud.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Piezas comunes de las cargas masivas (importación de productos y alta de
+ * usuarios): filas numeradas, lectura en streaming de un arreglo JSON, el
+ * recorrido por bloques y el acumulado del informe.
+ */
+final class BulkRows {
+
+    private BulkRows() {
+    }
+
+    /**
+     * Fila leída del cuerpo: el valor convertido o los errores que impidieron
+     * convertirla.
+     */
+    record Row<T>(int number, T value, Map<String, String> errors) {
+    }
+
+    interface Reader<T> extends Closeable {
+
+        /*
+         * Siguiente fila o null al terminar.
+         */
+        Row<T> next() throws IOException;
+    }
+
+    /**
+     * Acumula los contadores y los resultados por fila (hasta maxResults)
+     * mientras avanza la carga.
+     */
+    static final class Progress<R> {
+
+        private final int maxResults;
+        private final List<R> results = new ArrayList<>();
+        private int rows;
+        private int accepted;
+        private int rejected;
+        private int reported;
+
+        Progress(int maxResults) {
+            this.maxResults = maxResults;
+        }
+
+        void accept() {
+            accepted++;
+        }
+
+        void accept(R result) {
+            accepted++;
+            report(result);
+        }
+
+        void reject(R result) {
+            rejected++;
+            report(result);
+        }
+
+        private void report(R result) {
+            reported++;
+            if (results.size() < maxResults) {
+                results.add(result);
+            }
+        }
+
+        int rows() {
+            return rows;
+        }
+
+        int accepted() {
+            return accepted;
+        }
+
+        int rejected() {
+            return rejected;
+        }
+
+        List<R> results() {
+            return results;
+        }
+
+        boolean truncated() {
+            return reported > results.size();
+        }
+    }
+
+    /**
+     * Lee todas las filas y entrega a handler bloques de hasta chunkSize. Si el
+     * cuerpo se corta o deja de ser válido se procesa lo leído hasta ahí y se
+     * rechaza la fila siguiente con el error (unreadable arma el resultado).
+     */
+    static <T, R> void readChunks(Reader<T> reader, int chunkSize, Progress<R> progress,
+            Consumer<List<Row<T>>> handler, BiFunction<Integer, Map<String, String>, R> unreadable) {
+        List<Row<T>> chunk = new ArrayList<>(chunkSize);
+        try (reader) {
+            Row<T> row;
+            while ((row = reader.next()) != null) {
+                progress.rows++;
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    handler.accept(chunk);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            progress.reject(unreadable.apply(progress.rows + 1,
+                    Map.of("body", "No se pudo leer el cuerpo: " + e.getMessage())));
+        }
+        if (!chunk.isEmpty()) {
+            handler.accept(chunk);
+        }
+    }
+
+    /**
+     * Arreglo JSON de objetos; cada elemento se lee como un árbol pequeño y se
+     * convierte con converter, así el arreglo completo nunca está en memoria.
+     * elements nombra los elementos en el mensaje de error ("productos").
+     */
+    static <T> Reader<T> jsonArray(ObjectMapper objectMapper, InputStream in, String elements,
+            BiFunction<Integer, JsonNode, Row<T>> converter) {
+        JsonParser parser;
+        try {
+            parser = objectMapper.createParser(in);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.close();
+                throw new IllegalArgumentException("El cuerpo debe ser un arreglo JSON de " + elements);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("El cuerpo no es un JSON válido");
+        }
+
+        return new Reader<T>() {
+
+            private int number;
+
+            @Override
+            public Row<T> next() throws IOException {
+                JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.END_ARRAY) {
+                    return null;
+                }
+                number++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    return new Row<>(number, null, Map.of("row", "Cada elemento debe ser un objeto JSON"));
+                }
+                JsonNode node = parser.readValueAsTree();
+                return converter.apply(number, node);
+            }
+
+            @Override
+            public void close() throws IOException {
+                parser.close();
+            }
+        };
+    }
+
+    static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
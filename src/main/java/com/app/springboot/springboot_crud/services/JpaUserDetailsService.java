@@ -5,18 +5,27 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 // import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.app.springboot.springboot_crud.cache.ExpiringCache;
+import com.app.springboot.springboot_crud.cache.UniquenessIndex;
 import com.app.springboot.springboot_crud.entities.User;
 import com.app.springboot.springboot_crud.repositories.UserRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
 /**
  * En Spring Boot 3, la interfaz UserDetailsService es parte del módulo de
  * seguridad de Spring (Spring Security) y se utiliza para la autenticación de
@@ -46,17 +55,63 @@ import com.app.springboot.springboot_crud.repositories.UserRepository;
  */
 @Service
 // @EnableWebSecurity
-public class JpaUserDetailsService implements UserDetailsService {
+public class JpaUserDetailsService implements UserDetailsService, UserDetailsPasswordService, MeterBinder {
 
     @Autowired
     private UserRepository repository;
 
-    @Transactional(readOnly = true)
+    /*
+     * Cache de los datos necesarios para construir el UserDetails y cache negativo
+     * de usernames inexistentes. Se guarda una copia inmutable y en cada acierto se
+     * crea un UserDetails nuevo, porque Spring Security borra la contraseña del
+     * principal (eraseCredentials) después de autenticar.
+     */
+    private record CachedUser(String username, String password, boolean enabled,
+            List<GrantedAuthority> authorities) {
+
+        UserDetails toUserDetails() {
+            return new org.springframework.security.core.userdetails.User(username, password, enabled, true, true,
+                    true, authorities);
+        }
+    }
+
+    private final ExpiringCache<String, CachedUser> users;
+
+    private final ExpiringCache<String, Boolean> missingUsers;
+
+    private final long ttlMillis;
+
+    private final long missingTtlMillis;
+
+    public JpaUserDetailsService(@Value("${security.user-cache.max-entries:10000}") int maxEntries,
+            @Value("${security.user-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${security.user-cache.missing-ttl-seconds:60}") long missingTtlSeconds) {
+        this.users = new ExpiringCache<>(maxEntries);
+        this.missingUsers = new ExpiringCache<>(maxEntries);
+        this.ttlMillis = ttlSeconds * 1000;
+        this.missingTtlMillis = missingTtlSeconds * 1000;
+    }
+
+    /*
+     * Ya no hace falta @Transactional: en un acierto del cache no se toca la base
+     * de datos, y en un fallo findWithRolesByUsername trae el usuario con sus roles
+     * en una sola consulta (sin carga perezosa).
+     */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<User> userOptional = repository.findByUsername(username);
+        String key = key(username);
+        CachedUser cached = users.get(key);
+        if (cached != null) {
+            return cached.toUserDetails();
+        }
+        if (missingUsers.get(key) != null) {
+            throw new UsernameNotFoundException(String.format("Username '%s' no existe en el sistema", username));
+        }
+
+        Optional<User> userOptional = repository.findWithRolesByUsername(username);
 
         if (!userOptional.isPresent()) {
+            missingUsers.put(key, Boolean.TRUE, missingTtlMillis);
             throw new UsernameNotFoundException(String.format("Username '%s' no existe en el sistema", username));
         }
 
@@ -124,7 +179,58 @@ public class JpaUserDetailsService implements UserDetailsService {
          * En tu ejemplo, esta lista se construye a partir de los roles del usuario,
          * mapeando cada rol a una instancia de SimpleGrantedAuthority.
          */
-        return new org.springframework.security.core.userdetails.User(user.getUsername(), user.getPassword(),
-                user.isEnabled(), true, true, true, authorities);
+        CachedUser snapshot = new CachedUser(user.getUsername(), user.getPassword(), user.isEnabled(),
+                List.copyOf(authorities));
+        users.put(key, snapshot, ttlMillis);
+        return snapshot.toUserDetails();
+    }
+
+    /**
+     * Descarta lo cacheado para el username. Si hay una transacción activa se
+     * descarta también después del commit, para no volver a cachear datos que
+     * la transacción está cambiando.
+     */
+    public void evict(String username) {
+        String key = key(username);
+        users.remove(key);
+        missingUsers.remove(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    users.remove(key);
+                    missingUsers.remove(key);
+                }
+            });
+        }
+    }
+
+    /*
+     * La columna username compara sin distinguir mayúsculas ni espacios finales:
+     * "bob" y "BOB" son el mismo usuario y deben compartir la entrada del cache.
+     */
+    private static String key(String username) {
+        return UniquenessIndex.normalize(username);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        users.bindTo(registry, "security.user.cache", "type", "found");
+        missingUsers.bindTo(registry, "security.user.cache", "type", "missing");
+    }
+
+    /*
+     * Spring Security llama a este método después de un login exitoso cuando el
+     * hash guardado debe actualizarse (otro algoritmo o un costo menor al
+     * configurado). newPassword ya viene codificado.
+     */
+    @Transactional
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        repository.findByUsername(user.getUsername()).ifPresent(entity -> entity.setPassword(newPassword));
+        evict(user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
     }
 }
@@ -0,0 +1,312 @@
+package com.app.springboot.springboot_crud.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.app.springboot.springboot_crud.cache.ExpiringCache;
+import com.app.springboot.springboot_crud.dto.CursorPage;
+import com.app.springboot.springboot_crud.dto.ProductCursor;
+import com.app.springboot.springboot_crud.dto.ProductFilter;
+import com.app.springboot.springboot_crud.dto.ProductSort;
+import com.app.springboot.springboot_crud.entities.Product;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Cache en memoria del catálogo: productos individuales (incluido "no existe")
+ * y páginas del listado.
+ *
+ * Las escrituras actualizan o descartan el cache después del commit. Cada
+ * invalidación incrementa una generación; una carga que empezó antes de la
+ * invalidación no guarda su resultado, así no se vuelve a cachear un dato
+ * anterior al commit.
+ *
+ * Los fallos concurrentes de una misma llave se agrupan (single-flight): solo
+ * la primera solicitud consulta la base de datos y las demás esperan su
+ * resultado. Así un arranque en frío o la expiración de un producto popular no
+ * agotan el pool de conexiones con cientos de consultas idénticas. La espera
+ * está acotada por product.cache.load-timeout-millis: si la carga se cuelga
+ * las solicitudes que la esperan reciben ProductLoadTimeoutException (503) en
+ * lugar de quedar retenidas.
+ */
+@Component
+public class ProductCache implements MeterBinder {
+
+    private record PageKey(ProductFilter filter, ProductSort sort, ProductCursor after, int size) {
+    }
+
+    private final ExpiringCache<Long, Optional<Product>> products;
+
+    private final ExpiringCache<PageKey, CursorPage<Product>> pages;
+
+    private final long productTtlMillis;
+
+    private final long pageTtlMillis;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /*
+     * Cargas en curso por llave. Las llaves de productos (Long) y de páginas
+     * (PageKey) nunca coinciden, por eso comparten el mapa.
+     */
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final long loadTimeoutMillis;
+
+    private final long retryAfterSeconds;
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder timedOut = new LongAdder();
+
+    private volatile Timer loadTimer;
+
+    public ProductCache(@Value("${product.cache.max-products:10000}") int maxProducts,
+            @Value("${product.cache.max-pages:1000}") int maxPages,
+            @Value("${product.cache.product-ttl-seconds:300}") long productTtlSeconds,
+            @Value("${product.cache.page-ttl-seconds:60}") long pageTtlSeconds,
+            @Value("${product.cache.load-timeout-millis:10000}") long loadTimeoutMillis,
+            @Value("${product.cache.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.products = new ExpiringCache<>(maxProducts);
+        this.pages = new ExpiringCache<>(maxPages);
+        this.productTtlMillis = productTtlSeconds * 1000;
+        this.pageTtlMillis = pageTtlSeconds * 1000;
+        this.loadTimeoutMillis = loadTimeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Optional<Product> getProduct(Long id, Supplier<Optional<Product>> loader) {
+        Optional<Product> cached = products.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        return loadOnce(id, () -> {
+            // Otra carga pudo terminar entre la consulta al cache y este punto
+            Optional<Product> current = products.peek(id);
+            if (current != null) {
+                return current;
+            }
+            long startedAt = generation.get();
+            Optional<Product> loaded = load(loader);
+            if (generation.get() == startedAt) {
+                products.put(id, loaded, productTtlMillis);
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * Resuelve varios productos: los que están en el cache se toman de ahí y el
+     * resto se carga con una sola llamada al loader (una consulta IN). Los ids que
+     * no existen quedan como Optional.empty() y también se cachean.
+     *
+     * Estos fallos no se agrupan: cada solicitud hace a lo sumo una consulta para
+     * todos sus ids, y dos lotes concurrentes rara vez piden exactamente los
+     * mismos ids. Esperar las cargas en curso id por id obligaría a partir el lote
+     * en varias consultas o a esperar cargas ajenas más grandes.
+     */
+    public Map<Long, Optional<Product>> getProducts(Collection<Long> ids,
+            Function<Collection<Long>, Iterable<Product>> loader) {
+        Map<Long, Optional<Product>> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Optional<Product> cached = products.get(id);
+            if (cached != null) {
+                result.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long startedAt = generation.get();
+        Map<Long, Optional<Product>> loaded = new HashMap<>();
+        for (Long id : missing) {
+            loaded.put(id, Optional.empty());
+        }
+        load(() -> loader.apply(missing)).forEach(product -> loaded.put(product.getId(), Optional.of(product)));
+        if (generation.get() == startedAt) {
+            loaded.forEach((id, product) -> products.put(id, product, productTtlMillis));
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    public CursorPage<Product> getPage(ProductFilter filter, ProductSort sort, ProductCursor after, int size,
+            Supplier<CursorPage<Product>> loader) {
+        PageKey key = new PageKey(filter, sort, after, size);
+        CursorPage<Product> cached = pages.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return loadOnce(key, () -> {
+            CursorPage<Product> current = pages.peek(key);
+            if (current != null) {
+                return current;
+            }
+            long startedAt = generation.get();
+            CursorPage<Product> loaded = load(loader);
+            if (generation.get() == startedAt) {
+                pages.put(key, loaded, pageTtlMillis);
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * Generación actual del catálogo; cambia con cada escritura confirmada. La
+     * usan otros caches derivados (ver ProductResponseCache) para saber si una
+     * entrada sigue vigente.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Después del commit guarda la versión nueva del producto y descarta las
+     * páginas del listado (el orden o los filtros pudieron cambiar).
+     */
+    public void updated(Product product) {
+        afterCommit(() -> invalidate(() -> {
+            products.put(product.getId(), Optional.of(product), productTtlMillis);
+            pages.clear();
+        }));
+    }
+
+    /**
+     * Después del commit descarta el producto y las páginas del listado.
+     */
+    public void deleted(Long id) {
+        afterCommit(() -> invalidate(() -> {
+            products.remove(id);
+            pages.clear();
+        }));
+    }
+
+    /**
+     * Descarta todo el cache después del commit (escrituras masivas).
+     */
+    public void clear() {
+        afterCommit(() -> invalidate(() -> {
+            products.clear();
+            pages.clear();
+        }));
+    }
+
+    /*
+     * La generación cambia antes y después de tocar el cache. Antes: una carga
+     * en curso que leyó datos viejos ya no se guarda. Después: quien leyó la
+     * generación nueva (ProductResponseCache) ya ve el cache actualizado, nunca
+     * el valor anterior con la generación nueva.
+     */
+    private void invalidate(Runnable mutation) {
+        generation.incrementAndGet();
+        mutation.run();
+        generation.incrementAndGet();
+    }
+
+    /*
+     * La primera solicitud de una llave ejecuta la carga y publica el resultado
+     * (o la excepción) en un CompletableFuture; las que llegan mientras tanto lo
+     * esperan hasta loadTimeoutMillis. El resultado se guarda en el cache antes
+     * de retirar la carga del mapa, por lo que una solicitud posterior encuentra
+     * el valor cacheado.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T loadOnce(Object key, Supplier<T> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return (T) running.get(loadTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                timedOut.increment();
+                throw new ProductLoadTimeoutException("La consulta del catálogo tardó demasiado, intente más tarde",
+                        retryAfterSeconds);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("La espera de la carga fue interrumpida", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        try {
+            T value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private <T> T load(Supplier<T> loader) {
+        Timer timer = loadTimer;
+        return timer == null ? loader.get() : timer.record(loader);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        products.bindTo(registry, "product.cache", "type", "product");
+        pages.bindTo(registry, "product.cache", "type", "page");
+        this.loadTimer = Timer.builder("product.cache.load")
+                .description("Tiempo de carga desde la base de datos en un fallo del cache")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        FunctionCounter.builder("product.cache.coalesced", coalesced, LongAdder::sum)
+                .description("Solicitudes que esperaron una carga en curso en lugar de consultar la base de datos")
+                .register(registry);
+        FunctionCounter.builder("product.cache.load.timeouts", timedOut, LongAdder::sum)
+                .description("Solicitudes que dejaron de esperar una carga en curso por exceder el tiempo máximo")
+                .register(registry);
+        Gauge.builder("product.cache.in-flight", inFlight, ConcurrentHashMap::size)
+                .register(registry);
+    }
+}
@@ -0,0 +1,12 @@
+package com.app.springboot.springboot_crud.services;
+
+import java.io.InputStream;
+
+import com.app.springboot.springboot_crud.dto.ImportReport;
+
+public interface ProductImportService {
+
+    ImportReport importJson(InputStream in);
+
+    ImportReport importCsv(InputStream in);
+}
@@ -0,0 +1,371 @@
+package com.app.springboot.springboot_crud.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.app.springboot.springboot_crud.cache.UniquenessIndex;
+import com.app.springboot.springboot_crud.dto.ImportReport;
+import com.app.springboot.springboot_crud.entities.Product;
+import com.app.springboot.springboot_crud.repositories.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Importación masiva del catálogo desde un arreglo JSON o un CSV.
+ *
+ * Crear productos uno por uno con POST /api/products cuesta una consulta
+ * existsBySku por @IsExistsDB y un INSERT por solicitud. Aquí:
+ *
+ * - El cuerpo se lee en streaming, fila por fila, sin cargarlo completo.
+ * - Las filas se procesan en bloques de product.import.chunk-size: se validan
+ * en memoria, los sku se comprueban con una sola consulta IN por bloque y se
+ * insertan en una transacción por bloque. Los ids salen de la secuencia pooled
+ * de Product, así Hibernate agrupa los INSERT en lotes de
+ * hibernate.jdbc.batch_size.
+ * - Si la base de datos rechaza el bloque (por ejemplo un sku insertado por
+ * otra solicitud mientras tanto) sus filas se reintentan de a una, cada una en
+ * su transacción.
+ * - Cada fila rechazada se informa con su número y sus errores.
+ *
+ * Los bloques ya confirmados se conservan aunque un bloque posterior falle.
+ * Los productos de cada bloque se agregan al índice de búsqueda después de su
+ * commit y al terminar se descarta el cache del catálogo.
+ */
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    /*
+     * sku se valida aparte: sus restricciones incluyen @IsExistsDB, que haría una
+     * consulta por fila; la existencia se comprueba por bloque.
+     */
+    private static final List<String> VALIDATED_FIELDS = List.of("name", "price", "description");
+
+    private static final String SKU_CONSTRAINT = "uk_products_sku";
+
+    private static final List<String> CSV_COLUMNS = List.of("sku", "name", "price", "description");
+
+    @Autowired
+    private ProductRepository repository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductCache cache;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private UniqueKeyRegistry uniqueKeys;
+
+    @Value("${product.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${product.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Override
+    public ImportReport importJson(InputStream in) {
+        return importRows(jsonReader(in));
+    }
+
+    @Override
+    public ImportReport importCsv(InputStream in) {
+        return importRows(csvReader(in));
+    }
+
+    private ImportReport importRows(BulkRows.Reader<Product> reader) {
+        BulkRows.Progress<ImportReport.RowError> progress = new BulkRows.Progress<>(maxReportedErrors);
+        Set<String> seenSkus = new HashSet<>();
+        try {
+            BulkRows.readChunks(reader, chunkSize, progress, chunk -> importChunk(chunk, seenSkus, progress),
+                    (row, errors) -> new ImportReport.RowError(row, null, errors));
+        } finally {
+            // El índice de búsqueda ya se actualizó por bloque; solo las páginas
+            // cacheadas quedan desactualizadas
+            if (progress.accepted() > 0) {
+                cache.clear();
+            }
+        }
+        return new ImportReport(progress.rows(), progress.accepted(), progress.rejected(), progress.results(),
+                progress.truncated());
+    }
+
+    /*
+     * seenSkus tiene los sku (normalizados como la collation, ver
+     * UniquenessIndex.normalize) de los bloques ya confirmados; los de un bloque
+     * revertido no cuentan como repetidos para las filas siguientes.
+     */
+    private void importChunk(List<BulkRows.Row<Product>> chunk, Set<String> seenSkus,
+            BulkRows.Progress<ImportReport.RowError> progress) {
+        List<Product> candidates = new ArrayList<>(chunk.size());
+        Map<String, Integer> rowBySku = new HashMap<>();
+        for (BulkRows.Row<Product> row : chunk) {
+            Map<String, String> errors = row.errors().isEmpty() ? validate(row.value()) : row.errors();
+            String sku = row.value() == null ? null : row.value().getSku();
+            if (errors.isEmpty()) {
+                String key = UniquenessIndex.normalize(sku);
+                if (seenSkus.contains(key) || rowBySku.putIfAbsent(key, row.number()) != null) {
+                    errors = Map.of("sku", "El campo sku está repetido en la importación");
+                }
+            }
+            if (errors.isEmpty()) {
+                candidates.add(row.value());
+            } else {
+                reject(progress, row.number(), sku, errors);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<String> existing = new HashSet<>();
+        repository.findExistingSkus(rowBySku.keySet()).forEach(sku -> existing.add(UniquenessIndex.normalize(sku)));
+        List<Product> inserts = new ArrayList<>(candidates.size());
+        for (Product product : candidates) {
+            if (existing.contains(UniquenessIndex.normalize(product.getSku()))) {
+                reject(progress, rowOf(rowBySku, product), product.getSku(),
+                        Map.of("sku", "El campo sku ya existe en la base de datos"));
+            } else {
+                inserts.add(product);
+            }
+        }
+        if (inserts.isEmpty()) {
+            return;
+        }
+
+        try {
+            insert(inserts);
+            inserts.forEach(product -> imported(product, seenSkus, progress));
+        } catch (DataAccessException | PersistenceException e) {
+            // Por ejemplo un sku insertado por otra solicitud mientras tanto, que la
+            // consulta del bloque no vio: el bloque se revierte y sus filas se
+            // reintentan de a una, así una fila en conflicto no arrastra a las demás
+            for (Product product : inserts) {
+                try {
+                    insert(List.of(product));
+                    imported(product, seenSkus, progress);
+                } catch (DataAccessException | PersistenceException rowError) {
+                    reject(progress, rowOf(rowBySku, product), product.getSku(), insertErrors(rowError));
+                }
+            }
+        }
+    }
+
+    private void insert(List<Product> products) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Product product : products) {
+                // Un intento anterior revertido pudo dejarle un id y una versión
+                product.setId(null);
+                product.setVersion(null);
+                uniqueKeys.skuAdded(product.getSku());
+                entityManager.persist(product);
+            }
+            // Los INSERT salen en lotes al hacer flush; clear evita que el contexto
+            // de persistencia crezca con cada bloque
+            entityManager.flush();
+            entityManager.clear();
+            // Se indexan después del commit, solo los productos insertados aquí
+            products.forEach(searchIndex::indexed);
+        });
+    }
+
+    private static void imported(Product product, Set<String> seenSkus,
+            BulkRows.Progress<ImportReport.RowError> progress) {
+        seenSkus.add(UniquenessIndex.normalize(product.getSku()));
+        progress.accept();
+    }
+
+    private static void reject(BulkRows.Progress<ImportReport.RowError> progress, int row, String sku,
+            Map<String, String> errors) {
+        progress.reject(new ImportReport.RowError(row, sku, errors));
+    }
+
+    /*
+     * Error de una fila que la base de datos rechazó: un sku repetido se informa
+     * en el campo sku, cualquier otra restricción con el mensaje del driver.
+     */
+    private static Map<String, String> insertErrors(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && SKU_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                return Map.of("sku", "El campo sku ya existe en la base de datos");
+            }
+        }
+        return Map.of("row", "No se pudo insertar: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+    }
+
+    private static int rowOf(Map<String, Integer> rowBySku, Product product) {
+        return rowBySku.get(UniquenessIndex.normalize(product.getSku()));
+    }
+
+    private Map<String, String> validate(Product product) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (!StringUtils.hasText(product.getSku())) {
+            errors.put("sku", "El campo sku es requerido");
+        }
+        for (String field : VALIDATED_FIELDS) {
+            for (ConstraintViolation<Product> violation : validator.validateProperty(product, field)) {
+                errors.putIfAbsent(field, "El campo " + field + " " + violation.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    private static BulkRows.Row<Product> toRow(int number, String sku, String name, String price, String description) {
+        Product product = new Product();
+        product.setSku(sku == null ? null : sku.trim());
+        product.setName(name);
+        product.setDescription(description);
+
+        if (StringUtils.hasText(price)) {
+            try {
+                product.setPrice(Integer.valueOf(price.trim()));
+            } catch (NumberFormatException e) {
+                return new BulkRows.Row<>(number, product, Map.of("price", "El campo price debe ser un número entero"));
+            }
+        }
+        return new BulkRows.Row<>(number, product, Map.of());
+    }
+
+    /*
+     * Arreglo JSON de objetos {sku, name, price, description}.
+     */
+    private BulkRows.Reader<Product> jsonReader(InputStream in) {
+        return BulkRows.jsonArray(objectMapper, in, "productos",
+                (number, node) -> toRow(number, BulkRows.text(node, "sku"), BulkRows.text(node, "name"),
+                        BulkRows.text(node, "price"), BulkRows.text(node, "description")));
+    }
+
+    /*
+     * CSV (RFC 4180) con encabezado; las columnas sku, name, price y description
+     * pueden venir en cualquier orden y el resto se ignora.
+     */
+    private BulkRows.Reader<Product> csvReader(InputStream in) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Map<String, Integer> columns = new HashMap<>();
+        try {
+            List<String> header = readRecord(reader);
+            if (header == null) {
+                throw new IllegalArgumentException("El CSV está vacío");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("No se pudo leer el encabezado del CSV");
+        }
+        if (!columns.keySet().containsAll(CSV_COLUMNS)) {
+            throw new IllegalArgumentException("El encabezado del CSV debe tener las columnas " + CSV_COLUMNS);
+        }
+
+        return new BulkRows.Reader<Product>() {
+
+            private int number;
+
+            @Override
+            public BulkRows.Row<Product> next() throws IOException {
+                List<String> record;
+                do {
+                    record = readRecord(reader);
+                } while (record != null && record.size() == 1 && record.get(0).isBlank());
+                if (record == null) {
+                    return null;
+                }
+                number++;
+                return toRow(number, column(record, columns.get("sku")), column(record, columns.get("name")),
+                        column(record, columns.get("price")), column(record, columns.get("description")));
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    private static String column(List<String> record, int index) {
+        return index < record.size() ? record.get(index) : null;
+    }
+
+    /*
+     * Lee un registro CSV; los campos entre comillas pueden contener comas, saltos
+     * de línea y comillas dobles escapadas (""). Devuelve null al final.
+     */
+    private static List<String> readRecord(BufferedReader reader) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            read = true;
+            char ch = (char) c;
+            if (quoted) {
+                if (ch != '"') {
+                    field.append(ch);
+                    continue;
+                }
+                reader.mark(1);
+                if (reader.read() == '"') {
+                    field.append('"');
+                } else {
+                    quoted = false;
+                    reader.reset();
+                }
+            } else if (ch == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                break;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+        }
+        if (quoted) {
+            throw new IOException("Un campo del CSV tiene comillas sin cerrar");
+        }
+        if (!read) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,20 @@
+package com.app.springboot.springboot_crud.services;
+
+/*
+ * Una solicitud esperó más de product.cache.load-timeout-millis la carga en
+ * curso de la misma llave (ver ProductCache). Se responde 503 con el
+ * encabezado Retry-After.
+ */
+public class ProductLoadTimeoutException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ProductLoadTimeoutException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
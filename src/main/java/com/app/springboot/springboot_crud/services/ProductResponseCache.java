@@ -0,0 +1,251 @@
+package com.app.springboot.springboot_crud.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.app.springboot.springboot_crud.cache.ExpiringCache;
+import com.app.springboot.springboot_crud.dto.ProductCursor;
+import com.app.springboot.springboot_crud.dto.ProductFilter;
+import com.app.springboot.springboot_crud.dto.ProductSort;
+import com.app.springboot.springboot_crud.entities.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Cache de respuestas del catálogo ya serializadas.
+ *
+ * Aunque ProductCache evita ir a la base de datos, el controlador volvía a
+ * serializar los Product con Jackson en cada solicitud. Aquí se guardan los
+ * bytes JSON listos y, si superan product.response-cache.gzip-min-bytes, su
+ * versión gzip, para responder sin serializar ni comprimir.
+ *
+ * Cada entrada recuerda la generación de ProductCache con la que se construyó;
+ * cualquier escritura del catálogo cambia la generación y la entrada deja de
+ * servirse. El ETag es fuerte y es el mismo en todos los nodos: para un
+ * producto es su versión ("v3"), que el cliente devuelve en If-Match al
+ * editarlo; para una página es el SHA-256 del JSON. La variante gzip lleva el
+ * sufijo "-gz" porque es otra representación. Si el cliente envía un If-None-Match que coincide se
+ * responde 304 sin cuerpo.
+ */
+@Component
+public class ProductResponseCache implements MeterBinder {
+
+    private static final String GZIP = "gzip";
+    private static final String GZIP_SUFFIX = "-gz";
+
+    private record ProductKey(Long id) {
+    }
+
+    private record PageKey(ProductFilter filter, ProductSort sort, ProductCursor after, int size) {
+    }
+
+    private record CachedBody(byte[] json, byte[] gzip, String etag, long generation) {
+    }
+
+    private final ProductCache productCache;
+
+    private final ObjectWriter writer;
+
+    private final ExpiringCache<Object, CachedBody> bodies;
+
+    private final long ttlMillis;
+
+    private final int gzipMinBytes;
+
+    public ProductResponseCache(ProductCache productCache, ObjectMapper objectMapper,
+            @Value("${product.response-cache.max-entries:2000}") int maxEntries,
+            @Value("${product.response-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${product.response-cache.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.productCache = productCache;
+        // Mismo ObjectMapper que usa Spring MVC, así el JSON no cambia
+        this.writer = objectMapper.writer();
+        this.bodies = new ExpiringCache<>(maxEntries);
+        this.ttlMillis = ttlSeconds * 1000;
+        this.gzipMinBytes = gzipMinBytes;
+    }
+
+    /**
+     * Respuesta de GET /api/products/{id}; vacío si el producto no existe.
+     */
+    public Optional<ResponseEntity<byte[]>> product(Long id, HttpServletRequest request,
+            Supplier<Optional<Product>> loader) {
+        return respond(new ProductKey(id), request, loader::get,
+                value -> versionTag(((Product) value).getVersion()));
+    }
+
+    /**
+     * Respuesta de una página del listado.
+     */
+    public ResponseEntity<byte[]> page(ProductFilter filter, ProductSort sort, ProductCursor after, int size,
+            HttpServletRequest request, Supplier<?> loader) {
+        return respond(new PageKey(filter, sort, after, size), request, () -> Optional.of(loader.get()), null)
+                .orElseThrow();
+    }
+
+    /**
+     * ETag de una versión de producto.
+     */
+    public static String versionTag(Long version) {
+        return "\"v" + version + "\"";
+    }
+
+    /**
+     * Versión contenida en un encabezado If-Match; null si es "*" (cualquier
+     * versión). Un valor que no es un ETag de versión lanza
+     * IllegalArgumentException: no puede coincidir con ninguna.
+     */
+    public static Long parseVersionTag(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.equals("*")) {
+            return null;
+        }
+        if (tag.endsWith(GZIP_SUFFIX + "\"")) {
+            tag = tag.substring(0, tag.length() - GZIP_SUFFIX.length() - 1) + "\"";
+        }
+        if (tag.length() < 4 || !tag.startsWith("\"v") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match no es un ETag de versión: " + ifMatch);
+        }
+        try {
+            return Long.valueOf(tag.substring(2, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match no es un ETag de versión: " + ifMatch);
+        }
+    }
+
+    private Optional<ResponseEntity<byte[]>> respond(Object key, HttpServletRequest request,
+            Supplier<Optional<?>> loader, Function<Object, String> etagOf) {
+        // La generación se lee antes de cargar y se vuelve a comparar después: si
+        // hubo una escritura en medio la respuesta se entrega pero no se guarda
+        long generation = productCache.generation();
+        CachedBody body = bodies.get(key);
+        if (body == null || body.generation() != generation) {
+            Optional<?> value = loader.get();
+            if (value.isEmpty()) {
+                return Optional.empty();
+            }
+            body = serialize(value.get(), generation, etagOf);
+            if (productCache.generation() == generation) {
+                bodies.put(key, body, ttlMillis);
+            }
+        }
+        return Optional.of(toResponse(body, request));
+    }
+
+    private ResponseEntity<byte[]> toResponse(CachedBody body, HttpServletRequest request) {
+        boolean gzip = body.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? gzipEtag(body.etag()) : body.etag();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), body.etag())) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+            headers.setContentLength(body.gzip().length);
+            return new ResponseEntity<>(body.gzip(), headers, HttpStatus.OK);
+        }
+        headers.setContentLength(body.json().length);
+        return new ResponseEntity<>(body.json(), headers, HttpStatus.OK);
+    }
+
+    private CachedBody serialize(Object value, long generation, Function<Object, String> etagOf) {
+        byte[] json;
+        try {
+            json = writer.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] gzip = json.length >= gzipMinBytes ? gzip(json) : null;
+        return new CachedBody(json, gzip, etagOf == null ? etag(json) : etagOf.apply(value), generation);
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            // 16 bytes del digest bastan para distinguir versiones de un recurso
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible en esta JVM", e);
+        }
+    }
+
+    private static String gzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + GZIP_SUFFIX + "\"";
+    }
+
+    /*
+     * If-None-Match admite una lista de ETags o "*". Se compara en forma débil
+     * (ignorando W/) y se acepta tanto el ETag del JSON como el de su variante
+     * gzip: el contenido es el mismo.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String gzipEtag = gzipEtag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(GZIP)) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bodies.bindTo(registry, "product.response.cache");
+    }
+}
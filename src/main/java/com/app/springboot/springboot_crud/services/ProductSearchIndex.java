@@ -0,0 +1,238 @@
+package com.app.springboot.springboot_crud.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.app.springboot.springboot_crud.entities.Product;
+import com.app.springboot.springboot_crud.repositories.ProductRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Índice invertido en memoria sobre el nombre y la descripción de los
+ * productos, para buscar sin consultas LIKE '%...%'.
+ *
+ * - Los textos se separan en términos en minúsculas y sin acentos.
+ * - Los términos viven en un ConcurrentSkipListMap, así cada palabra de la
+ * búsqueda se resuelve como prefijo con un rango del mapa ("lap" encuentra
+ * "laptop").
+ * - Un producto debe contener todas las palabras buscadas. El puntaje suma las
+ * apariciones (el nombre pesa más que la descripción) y duplica las
+ * coincidencias exactas frente a las de prefijo.
+ *
+ * Se construye desde ProductRepository al arrancar y se mantiene al día
+ * después de cada commit de ProductServiceImpl. Las búsquedas no bloquean; las
+ * escrituras se serializan entre sí. build() arma un índice nuevo aparte y lo
+ * publica de una vez, así una búsqueda nunca ve un índice a medio cargar.
+ */
+@Component
+public class ProductSearchIndex implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private record Document(Product product, Map<String, Integer> terms) {
+    }
+
+    private record Hit(Product product, int score) {
+    }
+
+    private record Index(ConcurrentHashMap<Long, Document> documents,
+            ConcurrentSkipListMap<String, ConcurrentHashMap<Long, Integer>> postings) {
+
+        Index() {
+            this(new ConcurrentHashMap<>(), new ConcurrentSkipListMap<>());
+        }
+    }
+
+    private final ProductRepository repository;
+
+    private volatile Index index = new Index();
+
+    private final Object writeLock = new Object();
+
+    private volatile Timer queryTimer;
+
+    public ProductSearchIndex(ProductRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.currentTimeMillis();
+        // Con el candado tomado, una escritura confirmada durante la carga se
+        // aplica después sobre el índice nuevo y no se pierde
+        Index built = new Index();
+        synchronized (writeLock) {
+            repository.findAll().forEach(product -> add(built, product));
+            index = built;
+        }
+        log.info("Índice de búsqueda de productos: {} productos, {} términos en {} ms", built.documents().size(),
+                built.postings().size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Devuelve hasta limit productos que contienen todas las palabras de la
+     * búsqueda (como palabra completa o como prefijo), ordenados por puntaje.
+     */
+    public List<Product> search(String query, int limit) {
+        Timer timer = queryTimer;
+        return timer == null ? doSearch(query, limit) : timer.record(() -> doSearch(query, limit));
+    }
+
+    /**
+     * Indexa (o reindexa) el producto después del commit.
+     */
+    public void indexed(Product product) {
+        afterCommit(() -> {
+            synchronized (writeLock) {
+                remove(index, product.getId());
+                add(index, product);
+            }
+        });
+    }
+
+    /**
+     * Quita el producto del índice después del commit.
+     */
+    public void removed(Long id) {
+        afterCommit(() -> {
+            synchronized (writeLock) {
+                remove(index, id);
+            }
+        });
+    }
+
+    private List<Product> doSearch(String query, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Index current = index;
+        Map<Long, Integer> scores = null;
+        for (String word : words) {
+            Map<Long, Integer> wordScores = new HashMap<>();
+            for (Map.Entry<String, ConcurrentHashMap<Long, Integer>> term : current.postings()
+                    .subMap(word, true, word + Character.MAX_VALUE, false).entrySet()) {
+                int boost = term.getKey().length() == word.length() ? 2 : 1;
+                term.getValue().forEach((id, weight) -> wordScores.merge(id, weight * boost, Integer::sum));
+            }
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                scores.keySet().retainAll(wordScores.keySet());
+                scores.replaceAll((id, score) -> score + wordScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> {
+            Document document = current.documents().get(id);
+            if (document != null) {
+                hits.add(new Hit(document.product(), score));
+            }
+        });
+        hits.sort(Comparator.comparingInt(Hit::score).reversed()
+                .thenComparing(hit -> hit.product().getId()));
+
+        List<Product> result = new ArrayList<>(Math.min(limit, hits.size()));
+        for (int i = 0; i < hits.size() && i < limit; i++) {
+            result.add(hits.get(i).product());
+        }
+        return result;
+    }
+
+    private static void add(Index index, Product product) {
+        Map<String, Integer> terms = new HashMap<>();
+        tokenize(product.getName()).forEach(term -> terms.merge(term, NAME_WEIGHT, Integer::sum));
+        tokenize(product.getDescription()).forEach(term -> terms.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+
+        index.documents().put(product.getId(), new Document(product, Map.copyOf(terms)));
+        terms.forEach((term, weight) -> index.postings().computeIfAbsent(term, t -> new ConcurrentHashMap<>())
+                .put(product.getId(), weight));
+    }
+
+    private static void remove(Index index, Long id) {
+        Document document = index.documents().remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms().keySet()) {
+            ConcurrentHashMap<Long, Integer> ids = index.postings().get(term);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    index.postings().remove(term, ids);
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("product.search.documents", this, search -> search.index.documents().size())
+                .register(registry);
+        Gauge.builder("product.search.terms", this, search -> search.index.postings().size())
+                .register(registry);
+        this.queryTimer = Timer.builder("product.search.query")
+                .description("Tiempo de respuesta de las búsquedas en el índice de productos")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+}
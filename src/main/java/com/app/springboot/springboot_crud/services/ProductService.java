@@ -1,21 +1,41 @@
 package com.app.springboot.springboot_crud.services;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import com.app.springboot.springboot_crud.dto.BulkProductRequest;
+import com.app.springboot.springboot_crud.dto.CursorPage;
+import com.app.springboot.springboot_crud.dto.ProductCursor;
+import com.app.springboot.springboot_crud.dto.ProductFilter;
+import com.app.springboot.springboot_crud.dto.ProductPatch;
+import com.app.springboot.springboot_crud.dto.ProductSort;
 import com.app.springboot.springboot_crud.entities.Product;
 
 public interface ProductService {
 
     List<Product> findAll();
 
+    CursorPage<Product> findPage(ProductFilter filter, ProductSort sort, ProductCursor after, int size);
+
     Optional<Product> findById(Long id);
 
+    Map<Long, Optional<Product>> findAllById(Collection<Long> ids);
+
+    List<Product> search(String query, int limit);
+
     Product save(Product product);
 
-    Optional<Product> update(Long id, Product product);
+    Optional<Product> update(Long id, Product product, Long expectedVersion);
+
+    Optional<Product> patch(Long id, ProductPatch patch, Long expectedVersion);
 
     Optional<Product> delete(Long id);
 
+    int bulkUpdate(BulkProductRequest request);
+
+    int bulkDelete(BulkProductRequest request);
+
     boolean existsBySku(String sku);
 }
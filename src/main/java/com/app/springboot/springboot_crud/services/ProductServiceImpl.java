@@ -1,13 +1,24 @@
 package com.app.springboot.springboot_crud.services;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.app.springboot.springboot_crud.dto.BulkProductRequest;
+import com.app.springboot.springboot_crud.dto.CursorPage;
+import com.app.springboot.springboot_crud.dto.ProductCursor;
+import com.app.springboot.springboot_crud.dto.ProductFilter;
+import com.app.springboot.springboot_crud.dto.ProductPatch;
+import com.app.springboot.springboot_crud.dto.ProductSort;
 import com.app.springboot.springboot_crud.entities.Product;
 import com.app.springboot.springboot_crud.repositories.ProductRepository;
 
@@ -17,54 +28,192 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private ProductRepository repository;
 
+    @Autowired
+    private ProductCache cache;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UniqueKeyRegistry uniqueKeys;
+
+    @Value("${product.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
     @Transactional(readOnly = true)
     @Override
     public List<Product> findAll() {
         return (List<Product>) repository.findAll();
     }
 
-    @Transactional(readOnly = true)
+    /*
+     * Se piden size + 1 productos para saber si existe otra página; el cursor
+     * siguiente es la posición del último producto entregado.
+     * 
+     * Las lecturas cacheadas no llevan @Transactional: así un acierto del cache no
+     * abre una transacción ni toma una conexión del pool. En un fallo la consulta
+     * del repositorio abre la suya.
+     */
+    @Override
+    public CursorPage<Product> findPage(ProductFilter filter, ProductSort sort, ProductCursor after, int size) {
+        return cache.getPage(filter, sort, after, size, () -> {
+            List<Product> products = repository.findPage(filter, sort, after, size + 1);
+            if (products.size() <= size) {
+                return new CursorPage<>(List.copyOf(products), null);
+            }
+            List<Product> page = List.copyOf(products.subList(0, size));
+            return new CursorPage<>(page, ProductCursor.after(sort, page.get(size - 1)).encode());
+        });
+    }
+
     @Override
     public Optional<Product> findById(Long id) {
-        return repository.findById(id);
+        return cache.getProduct(id, () -> repository.findById(id));
+    }
+
+    /*
+     * Los ids que no están en el cache se cargan juntos con findAllById (una sola
+     * consulta IN).
+     */
+    @Override
+    public Map<Long, Optional<Product>> findAllById(Collection<Long> ids) {
+        return cache.getProducts(ids, repository::findAllById);
+    }
+
+    /*
+     * La búsqueda se resuelve en el índice en memoria, sin tocar la base de datos.
+     */
+    @Override
+    public List<Product> search(String query, int limit) {
+        return searchIndex.search(query, limit);
     }
 
     @Transactional
     @Override
     public Product save(Product product) {
-        return repository.save(product);
+        Product saved = repository.save(product);
+        uniqueKeys.skuAdded(saved.getSku());
+        cache.updated(saved);
+        searchIndex.indexed(saved);
+        return saved;
     }
 
+    /*
+     * PUT reemplaza todos los campos editables (antes la descripción se quedaba
+     * con el valor anterior) con el mismo UPDATE condicional que PATCH.
+     */
     @Transactional
-    @Modifying
     @Override
-    public Optional<Product> update(Long id, Product product) {
-        Optional<Product> productOptionalDB = repository.findById(id);
-        if (productOptionalDB.isPresent()) {
-            Product productDB = productOptionalDB.orElseThrow();
-
-            productDB.setSku(product.getSku());
-            productDB.setName(product.getName());
-            productDB.setDescription(productDB.getDescription());
-            productDB.setPrice(product.getPrice());
-            return Optional.of(repository.save(productDB));
+    public Optional<Product> update(Long id, Product product, Long expectedVersion) {
+        return applyPatch(id, new ProductPatch(product.getSku(), product.getName(), product.getPrice(),
+                product.getDescription()), expectedVersion);
+    }
+
+    @Transactional
+    @Override
+    public Optional<Product> patch(Long id, ProductPatch patch, Long expectedVersion) {
+        return applyPatch(id, patch, expectedVersion);
+    }
+
+    /*
+     * Un solo UPDATE condicional por versión en lugar de leer, copiar y guardar.
+     * Si no afecta filas se distingue entre producto inexistente (vacío) y versión
+     * desactualizada (ProductVersionConflictException). El producto se vuelve a
+     * leer por id para devolverlo y actualizar el cache y el índice.
+     */
+    private Optional<Product> applyPatch(Long id, ProductPatch patch, Long expectedVersion) {
+        if (repository.patch(id, patch, expectedVersion) == 0) {
+            Optional<Long> currentVersion = repository.findVersionById(id);
+            if (currentVersion.isEmpty()) {
+                return Optional.empty();
+            }
+            throw new ProductVersionConflictException(id, currentVersion.orElseThrow());
         }
-        return productOptionalDB;
+        // Solo si el UPDATE se aplicó. El sku anterior queda en el índice de
+        // unicidad hasta el próximo load(); mientras tanto se resuelve con la base
+        uniqueKeys.skuAdded(patch.sku());
+        Optional<Product> saved = repository.findById(id);
+        saved.ifPresent(product -> {
+            cache.updated(product);
+            searchIndex.indexed(product);
+        });
+        return saved;
     }
 
     @Transactional
-    @Modifying
     @Override
     public Optional<Product> delete(Long id) {
         Optional<Product> productOptionalDB = repository.findById(id);
-        productOptionalDB.ifPresent(repository::delete);
+        productOptionalDB.ifPresent(productDB -> {
+            repository.delete(productDB);
+            uniqueKeys.skuRemoved(productDB.getSku());
+            cache.deleted(id);
+            searchIndex.removed(id);
+        });
         return productOptionalDB;
     }
 
-    @Transactional(readOnly = true)
+    /*
+     * Cada bloque es un UPDATE ... WHERE id IN (...) en su propia transacción, así
+     * ninguna sentencia bloquea demasiadas filas a la vez. Los productos del
+     * bloque se vuelven a leer para reindexarlos (el índice de búsqueda guarda el
+     * producto completo).
+     */
+    @Override
+    public int bulkUpdate(BulkProductRequest request) {
+        return inChunks(request, ids -> {
+            int updated = repository.bulkUpdate(ids, request.price(), request.priceDelta(), request.description());
+            repository.findAllById(ids).forEach(searchIndex::indexed);
+            cache.clear();
+            return updated;
+        });
+    }
+
+    @Override
+    public int bulkDelete(BulkProductRequest request) {
+        return inChunks(request, ids -> {
+            int deleted = repository.deleteAllByIds(ids);
+            ids.forEach(searchIndex::removed);
+            cache.clear();
+            return deleted;
+        });
+    }
+
+    /*
+     * Con ids se recorren en bloques de product.bulk.chunk-size; con filtro los
+     * ids de cada bloque se buscan por keyset (id > último id procesado).
+     */
+    private int inChunks(BulkProductRequest request, Function<List<Long>, Integer> action) {
+        int affected = 0;
+        if (request.ids() != null && !request.ids().isEmpty()) {
+            List<Long> ids = request.ids().stream().filter(Objects::nonNull).distinct().toList();
+            for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + bulkChunkSize, ids.size()));
+                affected += transactionTemplate.execute(status -> action.apply(chunk));
+            }
+            return affected;
+        }
+
+        Long afterId = null;
+        List<Long> chunk;
+        do {
+            chunk = repository.findIds(request.filter(), afterId, bulkChunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            List<Long> current = chunk;
+            affected += transactionTemplate.execute(status -> action.apply(current));
+            afterId = chunk.get(chunk.size() - 1);
+        } while (chunk.size() == bulkChunkSize);
+        return affected;
+    }
+
     @Override
     public boolean existsBySku(String sku) {
-        return repository.existsBySku(sku);
+        return uniqueKeys.skuExists(sku);
     }
 
 }
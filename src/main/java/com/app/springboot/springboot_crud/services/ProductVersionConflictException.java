@@ -0,0 +1,19 @@
+package com.app.springboot.springboot_crud.services;
+
+/*
+ * La versión enviada en If-Match ya no es la actual: otra edición se guardó
+ * antes. El controlador responde 412 con la versión vigente.
+ */
+public class ProductVersionConflictException extends RuntimeException {
+
+    private final Long currentVersion;
+
+    public ProductVersionConflictException(Long id, Long currentVersion) {
+        super(String.format("El producto %d fue modificado (versión actual %d)", id, currentVersion));
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
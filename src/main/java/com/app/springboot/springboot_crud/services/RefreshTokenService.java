@@ -0,0 +1,22 @@
+package com.app.springboot.springboot_crud.services;
+
+import java.util.Optional;
+
+public interface RefreshTokenService {
+
+    /*
+     * Resultado de una renovación: el usuario dueño del token y el nuevo refresh
+     * token que reemplaza al presentado.
+     */
+    record Rotation(String username, String refreshToken) {
+    }
+
+    String issue(String username);
+
+    Optional<Rotation> rotate(String refreshToken);
+
+    /*
+     * Borra los refresh tokens vencidos; devuelve cuántos se borraron.
+     */
+    int purgeExpired();
+}
@@ -0,0 +1,113 @@
+package com.app.springboot.springboot_crud.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.app.springboot.springboot_crud.entities.RefreshToken;
+import com.app.springboot.springboot_crud.repositories.RefreshTokenRepository;
+
+/**
+ * Refresh tokens opacos con rotación y detección de reutilización.
+ *
+ * Renovar el JWT con un refresh token es una búsqueda por hash en la base de
+ * datos, mucho más barata que volver a verificar la contraseña con BCrypt en
+ * cada login.
+ *
+ * Cada login y cada rotación agregan una fila; los tokens vencidos se borran
+ * periódicamente según jwt.refresh.purge-cron.
+ */
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenServiceImpl.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository repository;
+
+    @Value("${jwt.refresh.expiration-days:14}")
+    private long expirationDays;
+
+    @Scheduled(cron = "${jwt.refresh.purge-cron:0 0 3 * * *}")
+    @Transactional
+    @Override
+    public int purgeExpired() {
+        int deleted = repository.deleteExpired(Instant.now());
+        log.info("Refresh tokens vencidos borrados: {}", deleted);
+        return deleted;
+    }
+
+    @Transactional
+    @Override
+    public String issue(String username) {
+        return create(username, UUID.randomUUID().toString());
+    }
+
+    /*
+     * La reutilización no lanza excepciones a propósito: así la revocación de la
+     * familia se confirma (commit) aunque la renovación sea rechazada.
+     */
+    @Transactional
+    @Override
+    public Optional<Rotation> rotate(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return Optional.empty();
+        }
+
+        Optional<RefreshToken> optionalToken = repository.findByTokenHash(hash(refreshToken));
+        if (optionalToken.isEmpty()) {
+            return Optional.empty();
+        }
+
+        RefreshToken token = optionalToken.orElseThrow();
+        Instant now = Instant.now();
+        if (token.isRevoked() || token.getExpiresAt().isBefore(now)) {
+            return Optional.empty();
+        }
+
+        // Un token ya usado que vuelve a aparecer indica robo: se revoca la familia
+        if (token.getUsedAt() != null || repository.markUsed(token.getId(), now) == 0) {
+            repository.revokeFamily(token.getFamily());
+            return Optional.empty();
+        }
+
+        String next = create(token.getUsername(), token.getFamily());
+        return Optional.of(new Rotation(token.getUsername(), next));
+    }
+
+    private String create(String username, String family) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Instant expiresAt = Instant.now().plus(Duration.ofDays(expirationDays));
+        repository.save(new RefreshToken(hash(value), username, family, expiresAt));
+        return value;
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible en esta JVM", e);
+        }
+    }
+}
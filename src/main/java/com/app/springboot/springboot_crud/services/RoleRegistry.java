@@ -0,0 +1,70 @@
+package com.app.springboot.springboot_crud.services;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.app.springboot.springboot_crud.entities.Role;
+import com.app.springboot.springboot_crud.repositories.RoleRepository;
+
+/**
+ * Roles en memoria indexados por nombre.
+ *
+ * Los roles prácticamente no cambian, pero cada registro de usuario hacía un
+ * roleRepository.findByName("ROLE_USER"). Aquí se cargan una vez al arrancar
+ * en un mapa inmutable que se reemplaza completo en refresh() (por ejemplo
+ * desde POST /api/roles/refresh después de agregar un rol en la base de datos).
+ *
+ * Los Role devueltos están desacoplados de cualquier sesión; sirven para
+ * asociarlos a un usuario nuevo porque Hibernate solo necesita su id.
+ */
+@Component
+public class RoleRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(RoleRegistry.class);
+
+    private final RoleRepository repository;
+
+    private volatile Map<String, Role> roles;
+
+    public RoleRegistry(RoleRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void refresh() {
+        Map<String, Role> loaded = new HashMap<>();
+        repository.findAll().forEach(role -> loaded.put(role.getName(), role));
+        this.roles = Map.copyOf(loaded);
+        log.info("Roles cargados: {}", loaded.keySet());
+    }
+
+    public Optional<Role> find(String name) {
+        return Optional.ofNullable(roles().get(name));
+    }
+
+    public Set<String> names() {
+        return roles().keySet();
+    }
+
+    private Map<String, Role> roles() {
+        Map<String, Role> current = roles;
+        if (current == null) {
+            // Un registro antes de ApplicationReadyEvent carga el mapa en ese momento
+            synchronized (this) {
+                if (roles == null) {
+                    refresh();
+                }
+                current = roles;
+            }
+        }
+        return current;
+    }
+}
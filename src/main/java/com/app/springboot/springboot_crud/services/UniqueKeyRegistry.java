@@ -0,0 +1,130 @@
+package com.app.springboot.springboot_crud.services;
+
+import java.util.Collection;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.app.springboot.springboot_crud.cache.UniquenessIndex;
+import com.app.springboot.springboot_crud.repositories.ProductRepository;
+import com.app.springboot.springboot_crud.repositories.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Índices de unicidad de usernames y sku (ver UniquenessIndex) usados por
+ * existsByUsername y existsBySku, y con ellos por las validaciones
+ * @ExistsByUsername e @IsExistsDB. Registrar un usuario o crear un producto
+ * nuevo ya no consulta la base de datos para validar que el valor está libre.
+ *
+ * Se cargan al arrancar. Las altas se agregan en el momento (antes del commit)
+ * y quedan marcadas como en curso hasta que su transacción termina; las bajas
+ * se quitan después del commit. Deben llamarse dentro de la transacción que
+ * inserta el valor.
+ */
+@Component
+public class UniqueKeyRegistry implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(UniqueKeyRegistry.class);
+
+    private final UserRepository userRepository;
+
+    private final ProductRepository productRepository;
+
+    private final UniquenessIndex usernames;
+
+    private final UniquenessIndex skus;
+
+    public UniqueKeyRegistry(UserRepository userRepository, ProductRepository productRepository,
+            @Value("${app.uniqueness.expected-usernames:100000}") long expectedUsernames,
+            @Value("${app.uniqueness.expected-skus:1000000}") long expectedSkus,
+            @Value("${app.uniqueness.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.usernames = new UniquenessIndex(expectedUsernames, falsePositiveRate);
+        this.skus = new UniquenessIndex(expectedSkus, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        usernames.load(userRepository.findAllUsernames());
+        reloadSkus();
+        log.info("Índices de unicidad: {} usernames, {} sku en {} ms", usernames.size(), skus.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    /*
+     * Carga los sku al arrancar; las altas posteriores (también las de la
+     * importación masiva) se registran con skuAdded.
+     */
+    private void reloadSkus() {
+        skus.load(productRepository.findAllSkus());
+    }
+
+    public boolean usernameExists(String username) {
+        return usernames.exists(username, userRepository::existsByUsername);
+    }
+
+    /**
+     * De los usernames recibidos devuelve los que ya están ocupados
+     * (normalizados con UniquenessIndex.normalize), con a lo sumo una consulta
+     * IN para los que el índice no puede descartar.
+     */
+    public Set<String> existingUsernames(Collection<String> candidates) {
+        return usernames.existing(candidates, userRepository::findExistingUsernames);
+    }
+
+    public boolean skuExists(String sku) {
+        return skus.exists(sku, productRepository::existsBySku);
+    }
+
+    public void usernameAdded(String username) {
+        added(usernames, username);
+    }
+
+    public void skuAdded(String sku) {
+        added(skus, sku);
+    }
+
+    public void skuRemoved(String sku) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    skus.remove(sku);
+                }
+            });
+        } else {
+            skus.remove(sku);
+        }
+    }
+
+    private static void added(UniquenessIndex index, String value) {
+        index.add(value);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    index.completed(value);
+                }
+            });
+        } else {
+            index.completed(value);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        usernames.bindTo(registry, "uniqueness.index", "key", "username");
+        skus.bindTo(registry, "uniqueness.index", "key", "sku");
+    }
+}
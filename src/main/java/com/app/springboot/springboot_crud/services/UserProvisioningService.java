@@ -0,0 +1,10 @@
+package com.app.springboot.springboot_crud.services;
+
+import java.io.InputStream;
+
+import com.app.springboot.springboot_crud.dto.ProvisionReport;
+
+public interface UserProvisioningService {
+
+    ProvisionReport provision(InputStream in);
+}
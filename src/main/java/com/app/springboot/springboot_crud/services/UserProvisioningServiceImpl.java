@@ -0,0 +1,264 @@
+package com.app.springboot.springboot_crud.services;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.springboot.springboot_crud.cache.UniquenessIndex;
+import com.app.springboot.springboot_crud.dto.ProvisionReport;
+import com.app.springboot.springboot_crud.entities.Role;
+import com.app.springboot.springboot_crud.entities.User;
+import com.app.springboot.springboot_crud.validation.FormatChecks;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Alta masiva de usuarios desde un arreglo JSON [{"username", "password"}].
+ *
+ * Crear usuarios uno por uno con POST /api/users cuesta por cada uno la
+ * validación @ExistsByUsername, un BCrypt en el hilo de la solicitud y un
+ * INSERT. Aquí:
+ *
+ * - El cuerpo se lee en streaming, fila por fila, sin cargarlo completo.
+ * - Las filas se procesan en bloques de app.users.bulk.chunk-size: los
+ * usernames repetidos se detectan en memoria y los ocupados se resuelven para
+ * todo el bloque con el índice de unicidad y a lo sumo una consulta IN.
+ * - Las contraseñas se cifran en paralelo en un ForkJoinPool de
+ * app.users.bulk.hash-threads hilos (por defecto todos los núcleos),
+ * compartido por todas las altas masivas.
+ * - Los usuarios se insertan en una transacción por bloque; con los ids de la
+ * secuencia pooled Hibernate agrupa los INSERT en lotes. Si el bloque falla se
+ * reintenta fila por fila.
+ *
+ * Igual que save, los usuarios reciben solo ROLE_USER. Los bloques ya
+ * confirmados se conservan aunque un bloque posterior falle.
+ */
+@Service
+public class UserProvisioningServiceImpl implements UserProvisioningService, DisposableBean {
+
+    private static final List<String> VALIDATED_FIELDS = List.of("username", "password");
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JpaUserDetailsService userDetailsService;
+
+    @Autowired
+    private UniqueKeyRegistry uniqueKeys;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.users.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.users.bulk.max-reported-rows:10000}")
+    private int maxReportedRows;
+
+    private final ForkJoinPool hashPool;
+
+    public UserProvisioningServiceImpl(@Value("${app.users.bulk.hash-threads:0}") int hashThreads) {
+        int parallelism = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        this.hashPool = new ForkJoinPool(parallelism);
+    }
+
+    @Override
+    public ProvisionReport provision(InputStream in) {
+        BulkRows.Reader<User> reader = BulkRows.jsonArray(objectMapper, in, "usuarios",
+                UserProvisioningServiceImpl::toRow);
+        BulkRows.Progress<ProvisionReport.RowResult> progress = new BulkRows.Progress<>(maxReportedRows);
+        Set<String> seenUsernames = new HashSet<>();
+        BulkRows.readChunks(reader, chunkSize, progress, chunk -> provisionChunk(chunk, seenUsernames, progress),
+                (row, errors) -> new ProvisionReport.RowResult(row, null, null, errors));
+        return new ProvisionReport(progress.rows(), progress.accepted(), progress.rejected(), progress.results(),
+                progress.truncated());
+    }
+
+    /*
+     * Los usernames se comparan normalizados como la collation de la columna
+     * (UniquenessIndex.normalize): "Bob" y "bob" son el mismo. seenUsernames
+     * tiene los de filas ya creadas; los de filas que fallaron no cuentan como
+     * repetidos.
+     */
+    private void provisionChunk(List<BulkRows.Row<User>> chunk, Set<String> seenUsernames,
+            BulkRows.Progress<ProvisionReport.RowResult> progress) {
+        List<BulkRows.Row<User>> candidates = new ArrayList<>(chunk.size());
+        Set<String> chunkUsernames = new HashSet<>();
+        for (BulkRows.Row<User> row : chunk) {
+            Map<String, String> errors = row.errors().isEmpty() ? validate(row.value()) : row.errors();
+            String username = row.value() == null ? null : row.value().getUsername();
+            if (errors.isEmpty()) {
+                String key = UniquenessIndex.normalize(username);
+                if (seenUsernames.contains(key) || !chunkUsernames.add(key)) {
+                    errors = Map.of("username", "El campo username está repetido en el alta");
+                }
+            }
+            if (errors.isEmpty()) {
+                candidates.add(row);
+            } else {
+                reject(progress, row.number(), username, errors);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<String> existing = uniqueKeys
+                .existingUsernames(candidates.stream().map(row -> row.value().getUsername()).toList());
+        List<BulkRows.Row<User>> inserts = new ArrayList<>(candidates.size());
+        for (BulkRows.Row<User> row : candidates) {
+            if (existing.contains(UniquenessIndex.normalize(row.value().getUsername()))) {
+                reject(progress, row.number(), row.value().getUsername(),
+                        Map.of("username", "El campo username ya existe en la base de datos"));
+            } else {
+                inserts.add(row);
+            }
+        }
+
+        List<BulkRows.Row<User>> rows = hashPasswords(inserts, progress);
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Role> roles = new ArrayList<>();
+        roleRegistry.find("ROLE_USER").ifPresent(roles::add);
+        try {
+            insert(rows, roles);
+            rows.forEach(row -> created(row, seenUsernames, progress));
+        } catch (DataAccessException | PersistenceException e) {
+            // Por ejemplo un username registrado por otra solicitud mientras tanto: el
+            // bloque se revierte y sus filas se reintentan de a una, así una fila
+            // inválida no arrastra a las demás
+            for (BulkRows.Row<User> row : rows) {
+                try {
+                    insert(List.of(row), roles);
+                    created(row, seenUsernames, progress);
+                } catch (DataAccessException | PersistenceException rowError) {
+                    reject(progress, row.number(), row.value().getUsername(), Map.of("row",
+                            "No se pudo insertar: " + NestedExceptionUtils.getMostSpecificCause(rowError).getMessage()));
+                }
+            }
+        }
+    }
+
+    private void insert(List<BulkRows.Row<User>> rows, List<Role> roles) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (BulkRows.Row<User> row : rows) {
+                // Un intento anterior revertido pudo dejarle un id asignado
+                row.value().setId(null);
+                row.value().setRoles(new ArrayList<>(roles));
+                uniqueKeys.usernameAdded(row.value().getUsername());
+                entityManager.persist(row.value());
+                // El username pudo estar en el cache negativo del login
+                userDetailsService.evict(row.value().getUsername());
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private static void created(BulkRows.Row<User> row, Set<String> seenUsernames,
+            BulkRows.Progress<ProvisionReport.RowResult> progress) {
+        seenUsernames.add(UniquenessIndex.normalize(row.value().getUsername()));
+        progress.accept(new ProvisionReport.RowResult(row.number(), row.value().getUsername(), row.value().getId(),
+                Map.of()));
+    }
+
+    private static void reject(BulkRows.Progress<ProvisionReport.RowResult> progress, int row, String username,
+            Map<String, String> errors) {
+        progress.reject(new ProvisionReport.RowResult(row, username, null, errors));
+    }
+
+    /*
+     * Cifra las contraseñas del bloque en paralelo y devuelve las filas que se
+     * pudieron cifrar.
+     */
+    private List<BulkRows.Row<User>> hashPasswords(List<BulkRows.Row<User>> rows,
+            BulkRows.Progress<ProvisionReport.RowResult> progress) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        List<Callable<String>> tasks = new ArrayList<>(rows.size());
+        rows.forEach(row -> tasks.add(() -> passwordEncoder.encode(row.value().getPassword())));
+
+        List<Future<String>> hashes = hashPool.invokeAll(tasks);
+        List<BulkRows.Row<User>> hashed = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            BulkRows.Row<User> row = rows.get(i);
+            try {
+                row.value().setPassword(hashes.get(i).get());
+                hashed.add(row);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("El alta masiva fue interrumpida", e);
+            } catch (ExecutionException e) {
+                reject(progress, row.number(), row.value().getUsername(),
+                        Map.of("password", "No se pudo cifrar la contraseña"));
+            }
+        }
+        return hashed;
+    }
+
+    /*
+     * Solo las reglas de formato (FormatChecks): @ExistsByUsername haría una
+     * consulta por fila y la existencia se comprueba por bloque.
+     */
+    private Map<String, String> validate(User user) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (String field : VALIDATED_FIELDS) {
+            for (ConstraintViolation<User> violation : validator.validateProperty(user, field, FormatChecks.class)) {
+                errors.putIfAbsent(field, "El campo " + field + " " + violation.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    private static BulkRows.Row<User> toRow(int number, JsonNode node) {
+        User user = new User();
+        String username = BulkRows.text(node, "username");
+        user.setUsername(username == null ? null : username.trim());
+        user.setPassword(BulkRows.text(node, "password"));
+        return new BulkRows.Row<>(number, user, Map.of());
+    }
+
+    @Override
+    public void destroy() {
+        hashPool.shutdownNow();
+    }
+}
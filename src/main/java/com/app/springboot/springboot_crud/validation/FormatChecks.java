@@ -0,0 +1,12 @@
+package com.app.springboot.springboot_crud.validation;
+
+/**
+ * Grupo de validación con las reglas de formato de un campo, sin las que
+ * consultan la base de datos (@ExistsByUsername, @IsExistsDB).
+ *
+ * Las restricciones de formato se declaran en Default y en este grupo; así
+ * las cargas masivas validan cada fila en memoria y resuelven la unicidad por
+ * bloque.
+ */
+public interface FormatChecks {
+}
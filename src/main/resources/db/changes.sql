@@ -0,0 +1,67 @@
+-- Cambios de esquema para MariaDB (spring.jpa.hibernate.ddl-auto no está
+-- habilitado, así que se aplican a mano en orden).
+
+-- Refresh tokens con rotación y detección de reutilización
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    token_hash VARCHAR(64) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    family VARCHAR(36) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    used_at DATETIME(6) NULL,
+    revoked BIT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_refresh_tokens_token_hash (token_hash),
+    KEY idx_refresh_tokens_family (family)
+);
+
+-- Índices para la paginación por keyset y los filtros del listado de productos
+CREATE INDEX idx_products_price_id ON products (price, id);
+CREATE INDEX idx_products_name_id ON products (name, id);
+
+-- El sku es único: el índice de unicidad en memoria responde la validación y la
+-- restricción protege contra altas concurrentes. El mismo índice sirve al
+-- filtro por prefijo de sku.
+-- Antes no había restricción, así que puede haber sku repetidos (la comparación
+-- sigue la collation: sin distinguir mayúsculas ni espacios finales). Para
+-- revisarlos antes de migrar:
+--   SELECT sku, COUNT(*) FROM products GROUP BY sku HAVING COUNT(*) > 1;
+-- Se conserva el producto de menor id y los demás se renombran a
+-- <sku>-DUP-<id> para poder crear el índice sin perder filas.
+UPDATE products p
+JOIN (SELECT sku, MIN(id) AS keep_id FROM products GROUP BY sku HAVING COUNT(*) > 1) d
+    ON p.sku = d.sku AND p.id <> d.keep_id
+SET p.sku = CONCAT(p.sku, '-DUP-', p.id);
+CREATE UNIQUE INDEX uk_products_sku ON products (sku);
+
+-- Control de concurrencia optimista de productos (@Version, If-Match)
+ALTER TABLE products ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Secuencias para los ids (MariaDB 10.3+). Hibernate usa el optimizador pooled
+-- con allocationSize = 50: cada NEXT VALUE entrega el límite superior de un
+-- bloque de 50 ids, por eso INCREMENT BY 50 y el primer valor es max(id) + 50
+-- (el primer bloque empieza en max(id) + 1). Las columnas AUTO_INCREMENT se
+-- pueden dejar como están: Hibernate siempre envía el id.
+SET @start = (SELECT COALESCE(MAX(id), 0) + 50 FROM products);
+SET @ddl = CONCAT('CREATE SEQUENCE IF NOT EXISTS products_seq START WITH ', @start, ' INCREMENT BY 50');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @start = (SELECT COALESCE(MAX(id), 0) + 50 FROM users);
+SET @ddl = CONCAT('CREATE SEQUENCE IF NOT EXISTS users_seq START WITH ', @start, ' INCREMENT BY 50');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @start = (SELECT COALESCE(MAX(id), 0) + 50 FROM roles);
+SET @ddl = CONCAT('CREATE SEQUENCE IF NOT EXISTS roles_seq START WITH ', @start, ' INCREMENT BY 50');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @start = (SELECT COALESCE(MAX(id), 0) + 50 FROM refresh_tokens);
+SET @ddl = CONCAT('CREATE SEQUENCE IF NOT EXISTS refresh_tokens_seq START WITH ', @start, ' INCREMENT BY 50');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,72 @@
+package com.app.springboot.springboot_crud.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ExpiringCacheTests {
+
+    @Test
+    void returnsValuesUntilTheyExpire() throws InterruptedException {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("short", "a", 5);
+        cache.put("long", "b", 60_000);
+
+        assertEquals("a", cache.get("short"));
+        Thread.sleep(20);
+        assertNull(cache.get("short"));
+        assertNull(cache.peek("short"));
+        assertEquals("b", cache.get("long"));
+        // La entrada vencida se descartó al leerla
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void ignoresNonPositiveTtlAndDisabledCache() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("zero", "a", 0);
+        assertNull(cache.get("zero"));
+
+        ExpiringCache<String, String> disabled = new ExpiringCache<>(0);
+        disabled.put("key", "a", 60_000);
+        assertNull(disabled.get("key"));
+    }
+
+    @Test
+    void staysWithinMaxEntries() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(10);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i, 60_000);
+            assertTrue(cache.size() <= 10, "size " + cache.size());
+        }
+        // La última entrada siempre queda
+        assertEquals(99, cache.get(99));
+    }
+
+    @Test
+    void expiredEntriesAreEvictedBeforeLiveOnes() throws InterruptedException {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(3);
+        cache.put(1, 1, 5);
+        cache.put(2, 2, 60_000);
+        cache.put(3, 3, 60_000);
+        Thread.sleep(20);
+
+        cache.put(4, 4, 60_000);
+        assertEquals(2, cache.get(2));
+        assertEquals(3, cache.get(3));
+        assertEquals(4, cache.get(4));
+    }
+
+    @Test
+    void updatingAnExistingKeyDoesNotEvict() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(2);
+        cache.put(1, 1, 60_000);
+        cache.put(2, 2, 60_000);
+        cache.put(2, 20, 60_000);
+
+        assertEquals(1, cache.get(1));
+        assertEquals(20, cache.get(2));
+    }
+}
@@ -0,0 +1,147 @@
+package com.app.springboot.springboot_crud.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+class UniquenessIndexTests {
+
+    /*
+     * Predicado de base de datos que cuenta las consultas y responde según el
+     * conjunto indicado.
+     */
+    private static final class Database implements Predicate<String> {
+        private final Set<String> rows;
+        private final AtomicInteger queries = new AtomicInteger();
+
+        Database(String... rows) {
+            this.rows = Set.of(rows);
+        }
+
+        @Override
+        public boolean test(String value) {
+            queries.incrementAndGet();
+            return rows.contains(UniquenessIndex.normalize(value));
+        }
+    }
+
+    @Test
+    void beforeLoadEveryCheckGoesToTheDatabase() {
+        UniquenessIndex index = new UniquenessIndex(100, 0.01);
+        Database database = new Database("alice");
+
+        assertTrue(index.exists("alice", database));
+        assertFalse(index.exists("bob", database));
+        assertEquals(2, database.queries.get());
+    }
+
+    @Test
+    void loadedValuesAreNeverReportedAsNew() {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            values.add("user" + i);
+        }
+        UniquenessIndex index = new UniquenessIndex(1_000, 0.01);
+        index.load(values);
+
+        Predicate<String> database = value -> true;
+        for (String value : values) {
+            assertTrue(index.exists(value, database), value);
+        }
+        assertEquals(values.size(), index.size());
+    }
+
+    @Test
+    void newValuesAreAnsweredWithoutTheDatabase() {
+        UniquenessIndex index = new UniquenessIndex(1_000, 0.01);
+        index.load(List.of("alice", "bob"));
+        Database database = new Database("alice", "bob");
+
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(index.exists("new" + i, database));
+        }
+        assertEquals(0, database.queries.get());
+    }
+
+    @Test
+    void valuesAreComparedLikeTheColumnCollation() {
+        UniquenessIndex index = new UniquenessIndex(100, 0.01);
+        index.load(List.of("Bob"));
+        Database database = new Database("bob");
+
+        assertTrue(index.exists("bob", database));
+        assertTrue(index.exists("BOB  ", database));
+        assertEquals(Set.of("bob"), index.existing(List.of("bOb", "carol"), found -> List.of("Bob")));
+    }
+
+    @Test
+    void inFlightAddSurvivesDatabaseMissesAndReload() {
+        UniquenessIndex index = new UniquenessIndex(100, 0.01);
+        index.load(List.of());
+        index.add("carol");
+        Database database = new Database();
+
+        // La base todavía no ve la alta: responde que no existe, pero el valor no
+        // se quita del conjunto
+        assertFalse(index.exists("carol", database));
+        assertFalse(index.exists("carol", database));
+        assertEquals(2, database.queries.get());
+
+        index.load(List.of());
+        assertFalse(index.exists("carol", database));
+        assertEquals(3, database.queries.get());
+    }
+
+    @Test
+    void completedAddThatNeverReachedTheDatabaseIsDroppedOnReload() {
+        UniquenessIndex index = new UniquenessIndex(100, 0.01);
+        index.load(List.of());
+        index.add("dave");
+        index.completed("dave");
+
+        index.load(List.of());
+        Database database = new Database();
+        assertFalse(index.exists("dave", database));
+        assertEquals(0, database.queries.get());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void removeDropsTheValueUnlessAnInsertIsPending() {
+        UniquenessIndex index = new UniquenessIndex(100, 0.01);
+        index.load(List.of("erin", "frank"));
+        Database database = new Database();
+
+        index.remove("ERIN");
+        assertFalse(index.exists("erin", database));
+        assertEquals(0, database.queries.get());
+
+        index.add("frank");
+        index.remove("frank");
+        assertFalse(index.exists("frank", database));
+        assertEquals(1, database.queries.get());
+    }
+
+    @Test
+    void existingOnlyQueriesValuesTheIndexCannotRuleOut() {
+        UniquenessIndex index = new UniquenessIndex(100, 0.01);
+        index.load(List.of("alice", "bob"));
+        List<String> queried = new ArrayList<>();
+
+        Set<String> found = index.existing(List.of("alice", "zed", "yan"), values -> {
+            queried.addAll(values);
+            return List.of("alice");
+        });
+
+        assertEquals(Set.of("alice"), found);
+        assertEquals(List.of("alice"), queried);
+    }
+}
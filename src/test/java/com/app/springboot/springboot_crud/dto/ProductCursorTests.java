@@ -0,0 +1,49 @@
+package com.app.springboot.springboot_crud.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ProductCursorTests {
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void roundTripsEverySort() {
+        ProductCursor byId = new ProductCursor(ProductSort.ID, 42L, null, null);
+        ProductCursor byPrice = new ProductCursor(ProductSort.PRICE, 7L, 1500, null);
+        ProductCursor byName = new ProductCursor(ProductSort.NAME, 9L, null, "Cámara | 4K/HDR");
+
+        assertEquals(byId, ProductCursor.decode(byId.encode()));
+        assertEquals(byPrice, ProductCursor.decode(byPrice.encode()));
+        assertEquals(byName, ProductCursor.decode(byName.encode()));
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String cursor = new ProductCursor(ProductSort.NAME, 1L, null, "???>>>~~~").encode();
+
+        assertFalse(cursor.contains("+") || cursor.contains("/") || cursor.contains("="), cursor);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "not base64!", "@@" })
+    void rejectsInvalidBase64(String cursor) {
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(cursor));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "ID|1", "FOO|1|x", "id|1|", "ID|abc|", "PRICE|1|cheap", "PRICE|1|" })
+    void rejectsMalformedContent(String raw) {
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(base64(raw)));
+    }
+}
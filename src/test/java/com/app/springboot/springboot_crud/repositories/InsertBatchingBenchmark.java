@@ -0,0 +1,138 @@
+package com.app.springboot.springboot_crud.repositories;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Compara el costo de insertar filas con ids IDENTITY (un INSERT por fila y
+ * lectura de la clave generada, lo que hacía Hibernate antes) contra ids de
+ * secuencia pooled con lotes de 50, con y sin useBulkStmts.
+ *
+ * No es un test de JUnit: se ejecuta a mano contra una base MariaDB, por ejemplo
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.app.springboot.springboot_crud.repositories.InsertBatchingBenchmark
+ * -Dexec.args="jdbc:mariadb://localhost:3307/db_jpa_crud root root 20000"
+ *
+ * Argumentos: url, usuario, contraseña y filas por escenario (por defecto
+ * 20000). Crea y borra la tabla bench_products y la secuencia bench_products_seq.
+ */
+public class InsertBatchingBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Uso: InsertBatchingBenchmark <url> <usuario> <contraseña> [filas]");
+            return;
+        }
+        String url = args[0];
+        String user = args[1];
+        String password = args[2];
+        int rows = args.length > 3 ? Integer.parseInt(args[3]) : 20000;
+        String bulkUrl = url + (url.contains("?") ? "&" : "?") + "useBulkStmts=true";
+        String plainUrl = url + (url.contains("?") ? "&" : "?") + "useBulkStmts=false";
+
+        System.out.printf("%-34s %10s %14s%n", "escenario", "ms", "filas/s");
+        try (Connection connection = DriverManager.getConnection(plainUrl, user, password)) {
+            report("identity, INSERT por fila", rows, () -> insertIdentity(connection, rows));
+        }
+        try (Connection connection = DriverManager.getConnection(plainUrl, user, password)) {
+            report("secuencia, lotes de " + BATCH_SIZE, rows, () -> insertSequence(connection, rows));
+        }
+        try (Connection connection = DriverManager.getConnection(bulkUrl, user, password)) {
+            report("secuencia, lotes + useBulkStmts", rows, () -> insertSequence(connection, rows));
+        }
+        try (Connection connection = DriverManager.getConnection(plainUrl, user, password);
+                Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists bench_products");
+            statement.execute("drop sequence if exists bench_products_seq");
+        }
+    }
+
+    private interface Scenario {
+        void run() throws SQLException;
+    }
+
+    private static void report(String name, int rows, Scenario scenario) throws SQLException {
+        long start = System.nanoTime();
+        scenario.run();
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        System.out.printf("%-34s %10.0f %14.0f%n", name, millis, rows / (millis / 1000.0));
+    }
+
+    private static void recreate(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists bench_products");
+            statement.execute("drop sequence if exists bench_products_seq");
+            statement.execute("create table bench_products (id bigint auto_increment primary key,"
+                    + " sku varchar(50) not null unique, name varchar(255), price int, description varchar(255),"
+                    + " version bigint not null default 0)");
+            statement.execute("create sequence bench_products_seq start with 50 increment by " + BATCH_SIZE);
+        }
+    }
+
+    private static void insertIdentity(Connection connection, int rows) throws SQLException {
+        recreate(connection);
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into bench_products (sku, name, price, description) values (?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < rows; i++) {
+                bind(insert, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    /*
+     * Igual que el optimizador pooled de Hibernate: un NEXT VALUE por cada
+     * BATCH_SIZE ids y un executeBatch por lote.
+     */
+    private static void insertSequence(Connection connection, int rows) throws SQLException {
+        recreate(connection);
+        connection.setAutoCommit(false);
+        try (Statement sequence = connection.createStatement();
+                PreparedStatement insert = connection.prepareStatement(
+                        "insert into bench_products (id, sku, name, price, description) values (?, ?, ?, ?, ?)")) {
+            long next = 0;
+            long high = 0;
+            for (int i = 0; i < rows; i++) {
+                if (next >= high) {
+                    try (ResultSet value = sequence.executeQuery("select next value for bench_products_seq")) {
+                        value.next();
+                        high = value.getLong(1) + 1;
+                        next = high - BATCH_SIZE;
+                    }
+                }
+                insert.setLong(1, next++);
+                insert.setString(2, "BENCH-" + i);
+                insert.setString(3, "Producto " + i);
+                insert.setInt(4, 100 + i % 1000);
+                insert.setString(5, "Fila de prueba " + i);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    private static void bind(PreparedStatement insert, int i) throws SQLException {
+        insert.setString(1, "BENCH-" + i);
+        insert.setString(2, "Producto " + i);
+        insert.setInt(3, 100 + i % 1000);
+        insert.setString(4, "Fila de prueba " + i);
+    }
+}
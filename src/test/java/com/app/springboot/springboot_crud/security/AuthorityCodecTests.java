@@ -0,0 +1,55 @@
+package com.app.springboot.springboot_crud.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class AuthorityCodecTests {
+
+    private static List<String> names(List<GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+    @Test
+    void rolesAreEncodedWithoutPrefix() {
+        List<String> codes = AuthorityCodec.encode(List.of(new SimpleGrantedAuthority("ROLE_ADMIN"),
+                new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("products:write")));
+
+        assertEquals(List.of("ADMIN", "USER", "~products:write"), codes);
+    }
+
+    @Test
+    void roundTripKeepsAuthoritiesAndOrder() {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"),
+                new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("products:write"));
+
+        // Como llega del JWT: una lista genérica de textos
+        Object claim = new ArrayList<Object>(AuthorityCodec.encode(authorities));
+        List<GrantedAuthority> decoded = AuthorityCodec.decode(claim);
+
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN", "products:write"), names(decoded));
+    }
+
+    @Test
+    void decodingReusesInstances() {
+        List<GrantedAuthority> first = AuthorityCodec.decode(new ArrayList<Object>(List.of("USER")));
+        List<GrantedAuthority> second = AuthorityCodec.decode(new ArrayList<Object>(List.of("USER")));
+
+        assertSame(first, second);
+        assertSame(first.get(0), AuthorityCodec.decode(List.of("ADMIN", "USER")).get(1));
+    }
+
+    @Test
+    void invalidClaimsDecodeToNoAuthorities() {
+        assertTrue(AuthorityCodec.decode(null).isEmpty());
+        assertTrue(AuthorityCodec.decode("ADMIN").isEmpty());
+        assertTrue(AuthorityCodec.decode(List.of()).isEmpty());
+    }
+}
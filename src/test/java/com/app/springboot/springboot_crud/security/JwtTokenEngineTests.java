@@ -0,0 +1,72 @@
+package com.app.springboot.springboot_crud.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class JwtTokenEngineTests {
+
+    private static final int MAX_BODY_BYTES = 64;
+
+    private final JwtTokenEngine engine = engine();
+
+    private static JwtTokenEngine engine() {
+        try {
+            // Sin llaves configuradas el anillo genera una HS256 aleatoria
+            return new JwtTokenEngine(new JwtKeyRing(new JwtKeyRingProperties()), MAX_BODY_BYTES);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MockHttpServletRequest login(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    @Test
+    void readsCredentialsAndSkipsOtherFields() {
+        LoginRequest login = engine.readLogin(
+                login("{\"extra\":{\"a\":[1,2]},\"username\":\"alice\",\"password\":\"secret\"}"));
+
+        assertEquals(new LoginRequest("alice", "secret"), login);
+    }
+
+    @Test
+    void rejectsBodiesOverTheCap() {
+        String padding = "x".repeat(MAX_BODY_BYTES);
+        BadLoginRequestException e = assertThrows(BadLoginRequestException.class,
+                () -> engine.readLogin(login("{\"username\":\"alice\",\"password\":\"" + padding + "\"}")));
+
+        assertEquals("El cuerpo del login es demasiado grande", e.getMessage());
+    }
+
+    @Test
+    void rejectsBodiesOverTheCapWithoutContentLength() {
+        // Sin Content-Length el límite se aplica al leer
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setContent(("{\"username\":\"" + "a".repeat(MAX_BODY_BYTES) + "\"}").getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(BadLoginRequestException.class, () -> engine.readLogin(request));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "not json", "[\"alice\",\"secret\"]", "{\"username\":\"alice\"",
+            "{\"username\":\"alice\"}", "{\"username\":\"alice\",\"password\":\"  \"}",
+            "{\"username\":1,\"password\":\"secret\"}" })
+    void rejectsMalformedBodies(String body) {
+        assertThrows(BadLoginRequestException.class, () -> engine.readLogin(login(body)));
+    }
+}
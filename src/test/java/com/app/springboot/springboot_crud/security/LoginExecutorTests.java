@@ -0,0 +1,120 @@
+package com.app.springboot.springboot_crud.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginExecutorTests {
+
+    private final Authentication authentication = new UsernamePasswordAuthenticationToken("alice", null);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    private LoginExecutor executor;
+
+    private LoginExecutor executor(int threads, int queueCapacity, long timeoutMillis) {
+        executor = new LoginExecutor(threads, queueCapacity, 3, timeoutMillis);
+        executor.bindTo(registry);
+        return executor;
+    }
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+        if (executor != null) {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    void returnsTheAuthenticationAndPropagatesFailures() {
+        LoginExecutor executor = executor(1, 1, 5_000);
+
+        assertSame(authentication, executor.authenticate(() -> authentication));
+        assertThrows(BadCredentialsException.class, () -> executor.authenticate(() -> {
+            throw new BadCredentialsException("credenciales inválidas");
+        }));
+    }
+
+    @Test
+    void rejectsWhenTheQueueIsFull() throws Exception {
+        LoginExecutor executor = executor(1, 1, 5_000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Un login ocupa el único hilo y otro llena la cola
+        Future<Authentication> running = callers.submit(() -> executor.authenticate(() -> {
+            started.countDown();
+            await(release);
+            return authentication;
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        Future<Authentication> queued = callers.submit(() -> executor.authenticate(() -> authentication));
+        awaitQueueDepth(1);
+
+        LoginCapacityExceededException e = assertThrows(LoginCapacityExceededException.class,
+                () -> executor.authenticate(() -> authentication));
+        assertEquals(3, e.getRetryAfterSeconds());
+        assertEquals(1, registry.get("login.rejected").functionCounter().count());
+
+        release.countDown();
+        assertSame(authentication, running.get(5, TimeUnit.SECONDS));
+        assertSame(authentication, queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void timesOutAndCancelsSlowLogins() throws InterruptedException {
+        LoginExecutor executor = executor(1, 1, 50);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        LoginCapacityExceededException e = assertThrows(LoginCapacityExceededException.class,
+                () -> executor.authenticate(() -> {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException cancelled) {
+                        interrupted.countDown();
+                    }
+                    return authentication;
+                }));
+        assertEquals(3, e.getRetryAfterSeconds());
+        assertEquals(1, registry.get("login.timeouts").functionCounter().count());
+        // El hilo del executor se interrumpe y queda libre para el siguiente login
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertSame(authentication, executor.authenticate(() -> authentication));
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (registry.get("login.queue.depth").gauge().value() < depth) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("El login no llegó a la cola");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
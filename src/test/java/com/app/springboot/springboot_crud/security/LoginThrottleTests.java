@@ -0,0 +1,70 @@
+package com.app.springboot.springboot_crud.security;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LoginThrottleTests {
+
+    private static LoginThrottle throttle(int capacity, int refillPerMinute, int maxKeys) {
+        return new LoginThrottle(capacity, refillPerMinute, capacity, refillPerMinute, maxKeys, 15);
+    }
+
+    @Test
+    void rejectsOnceTheBucketIsEmpty() {
+        LoginThrottle throttle = throttle(3, 1, 100);
+
+        for (int i = 0; i < 3; i++) {
+            throttle.checkUsername("alice");
+        }
+        LoginThrottledException e = assertThrows(LoginThrottledException.class,
+                () -> throttle.checkUsername("alice"));
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+        // Otra llave tiene su propio bucket
+        assertDoesNotThrow(() -> throttle.checkUsername("bob"));
+    }
+
+    @Test
+    void usernamesIgnoreCase() {
+        LoginThrottle throttle = throttle(1, 1, 100);
+
+        throttle.checkUsername("Alice");
+        assertThrows(LoginThrottledException.class, () -> throttle.checkUsername("alice"));
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        // 60000 por minuto: un intento por milisegundo
+        LoginThrottle throttle = throttle(1, 60_000, 100);
+
+        throttle.checkAddress("10.0.0.1");
+        Thread.sleep(20);
+        assertDoesNotThrow(() -> throttle.checkAddress("10.0.0.1"));
+    }
+
+    @Test
+    void fullMapRejectsNewKeysInsteadOfEvictingActiveBuckets() {
+        LoginThrottle throttle = throttle(2, 1, 2);
+
+        throttle.checkUsername("target");
+        throttle.checkUsername("target");
+        throttle.checkUsername("other");
+
+        // Una llave nueva no puede desalojar el bucket que se está atacando
+        assertThrows(LoginThrottledException.class, () -> throttle.checkUsername("random-1"));
+        assertThrows(LoginThrottledException.class, () -> throttle.checkUsername("target"));
+    }
+
+    @Test
+    void refilledBucketsAreEvictedToMakeRoom() throws InterruptedException {
+        LoginThrottle throttle = throttle(1, 60_000, 2);
+
+        throttle.checkUsername("a");
+        throttle.checkUsername("b");
+        Thread.sleep(20);
+
+        assertDoesNotThrow(() -> throttle.checkUsername("c"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.app.springboot.springboot_crud.security;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+/**
+ * Mide cuántas verificaciones de contraseña por segundo soporta cada núcleo con
+ * cada configuración de costo, para dimensionar la capacidad de login
+ * (security.password.*).
+ *
+ * No es un test de JUnit: se ejecuta a mano, por ejemplo
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.app.springboot.springboot_crud.security.PasswordEncoderBenchmark
+ *
+ * Argumento opcional: segundos de medición por configuración (por defecto 3).
+ */
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    public static void main(String[] args) throws Exception {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 3;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        Map<String, PasswordEncoder> encoders = new LinkedHashMap<>();
+        for (int strength = 8; strength <= 13; strength++) {
+            encoders.put("bcrypt strength=" + strength, new BCryptPasswordEncoder(strength));
+        }
+        for (int iterations : new int[] { 100000, 310000, 600000 }) {
+            encoders.put("pbkdf2 iterations=" + iterations, new Pbkdf2PasswordEncoder("", 16, iterations,
+                    Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        }
+
+        System.out.printf("%-26s %14s %14s %16s%n", "encoder", "ms/hash", "hash/s/core", "hash/s (" + cores + ")");
+        ExecutorService pool = Executors.newFixedThreadPool(cores);
+        try {
+            for (Map.Entry<String, PasswordEncoder> entry : encoders.entrySet()) {
+                PasswordEncoder encoder = entry.getValue();
+                String hash = encoder.encode(PASSWORD);
+                // Calentamiento para que el JIT compile el algoritmo
+                run(encoder, hash, 200_000_000L);
+
+                long singleOps = run(encoder, hash, seconds * 1_000_000_000L);
+                double perCore = singleOps / (double) seconds;
+
+                List<Future<Long>> futures = new ArrayList<>();
+                for (int i = 0; i < cores; i++) {
+                    futures.add(pool.submit(() -> run(encoder, hash, seconds * 1_000_000_000L)));
+                }
+                long totalOps = 0;
+                for (Future<Long> future : futures) {
+                    totalOps += future.get();
+                }
+
+                System.out.printf("%-26s %14.2f %14.1f %16.1f%n", entry.getKey(), 1000.0 / perCore, perCore,
+                        totalOps / (double) seconds);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long run(PasswordEncoder encoder, String hash, long nanos) {
+        long ops = 0;
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            if (!encoder.matches(PASSWORD, hash)) {
+                throw new IllegalStateException("El hash no coincide");
+            }
+            ops++;
+        }
+        return ops;
+    }
+}
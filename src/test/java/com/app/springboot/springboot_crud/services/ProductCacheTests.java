@@ -0,0 +1,173 @@
+package com.app.springboot.springboot_crud.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.app.springboot.springboot_crud.entities.Product;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductCacheTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    private ProductCache cache(long loadTimeoutMillis) {
+        ProductCache cache = new ProductCache(100, 100, 300, 60, loadTimeoutMillis, 2);
+        cache.bindTo(registry);
+        return cache;
+    }
+
+    private static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setSku("SKU-" + id);
+        return product;
+    }
+
+    /*
+     * Loader que cuenta sus llamadas y se bloquea hasta release.
+     */
+    private static Supplier<Optional<Product>> blockingLoader(AtomicInteger calls, CountDownLatch release,
+            Product product) {
+        return () -> {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of(product);
+        };
+    }
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentMissesOfTheSameKeyRunOneLoad() throws Exception {
+        ProductCache cache = cache(5_000);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Product product = product(1);
+
+        List<Future<Optional<Product>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(() -> cache.getProduct(1L, blockingLoader(calls, release, product))));
+        }
+        awaitCoalesced(7);
+        release.countDown();
+
+        for (Future<Optional<Product>> result : results) {
+            assertSame(product, result.get(5, TimeUnit.SECONDS).orElseThrow());
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0, registry.get("product.cache.in-flight").gauge().value());
+        // El resultado quedó en el cache
+        assertSame(product, cache.getProduct(1L, () -> Optional.empty()).orElseThrow());
+    }
+
+    @Test
+    void waitersReceiveTheLoadFailure() throws Exception {
+        ProductCache cache = cache(5_000);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Optional<Product>> failing = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("la base de datos no responde");
+        };
+
+        Future<Optional<Product>> leader = callers.submit(() -> cache.getProduct(1L, failing));
+        awaitInFlight(1);
+        Future<Optional<Product>> waiter = callers.submit(() -> cache.getProduct(1L, failing));
+        awaitCoalesced(1);
+        release.countDown();
+
+        for (Future<Optional<Product>> result : List.of(leader, waiter)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IllegalStateException, e.getCause().toString());
+        }
+    }
+
+    @Test
+    void waitersGiveUpAfterTheLoadTimeout() throws Exception {
+        ProductCache cache = cache(50);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Product product = product(1);
+
+        Future<Optional<Product>> leader = callers
+                .submit(() -> cache.getProduct(1L, blockingLoader(calls, release, product)));
+        awaitInFlight(1);
+
+        ProductLoadTimeoutException e = assertThrows(ProductLoadTimeoutException.class,
+                () -> cache.getProduct(1L, blockingLoader(calls, release, product)));
+        assertEquals(2, e.getRetryAfterSeconds());
+        assertEquals(1, registry.get("product.cache.load.timeouts").functionCounter().count());
+
+        release.countDown();
+        assertSame(product, leader.get(5, TimeUnit.SECONDS).orElseThrow());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void loadStartedBeforeAnInvalidationIsNotCached() {
+        ProductCache cache = cache(5_000);
+        AtomicInteger calls = new AtomicInteger();
+
+        Optional<Product> loaded = cache.getProduct(1L, () -> {
+            calls.incrementAndGet();
+            // Sin transacción activa la invalidación se aplica de inmediato
+            cache.clear();
+            return Optional.of(product(1));
+        });
+        assertTrue(loaded.isPresent());
+
+        cache.getProduct(1L, () -> {
+            calls.incrementAndGet();
+            return Optional.of(product(1));
+        });
+        assertEquals(2, calls.get());
+    }
+
+    private void awaitCoalesced(int waiters) throws InterruptedException {
+        await(() -> registry.get("product.cache.coalesced").functionCounter().count() >= waiters);
+    }
+
+    private void awaitInFlight(int loads) throws InterruptedException {
+        await(() -> registry.get("product.cache.in-flight").gauge().value() >= loads);
+    }
+
+    private static void await(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.get()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("La condición no se cumplió a tiempo");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
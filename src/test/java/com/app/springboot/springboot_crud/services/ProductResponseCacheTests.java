@@ -0,0 +1,177 @@
+package com.app.springboot.springboot_crud.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.app.springboot.springboot_crud.dto.ProductSort;
+import com.app.springboot.springboot_crud.entities.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ProductResponseCacheTests {
+
+    private final ProductCache productCache = new ProductCache(100, 100, 300, 60, 5_000, 2);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ProductResponseCache cache(int gzipMinBytes) {
+        return new ProductResponseCache(productCache, objectMapper, 100, 60, gzipMinBytes);
+    }
+
+    private static Product product(long id, long version) {
+        Product product = new Product();
+        product.setId(id);
+        product.setSku("SKU-" + id);
+        product.setName("Cámara " + id);
+        product.setPrice(1500);
+        product.setDescription("Descripción del producto " + id);
+        product.setVersion(version);
+        return product;
+    }
+
+    private static MockHttpServletRequest get(String header, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        if (header != null) {
+            request.addHeader(header, value);
+        }
+        return request;
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void productEtagIsItsVersion() throws IOException {
+        ProductResponseCache cache = cache(1 << 20);
+        Product product = product(1, 3);
+
+        ResponseEntity<byte[]> response = cache.product(1L, get(null, null), () -> Optional.of(product)).orElseThrow();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"v3\"", response.getHeaders().getETag());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(objectMapper.writeValueAsBytes(product), response.getBody());
+    }
+
+    @Test
+    void matchingIfNoneMatchAnswersNotModified() {
+        ProductResponseCache cache = cache(1 << 20);
+        Product product = product(1, 3);
+
+        for (String ifNoneMatch : List.of("\"v3\"", "W/\"v3\"", "\"v2\", \"v3\"", "\"v3-gz\"", "*")) {
+            ResponseEntity<byte[]> response = cache
+                    .product(1L, get(HttpHeaders.IF_NONE_MATCH, ifNoneMatch), () -> Optional.of(product))
+                    .orElseThrow();
+            assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode(), ifNoneMatch);
+            assertNull(response.getBody());
+            assertEquals("\"v3\"", response.getHeaders().getETag());
+        }
+
+        ResponseEntity<byte[]> stale = cache
+                .product(1L, get(HttpHeaders.IF_NONE_MATCH, "\"v2\""), () -> Optional.of(product)).orElseThrow();
+        assertEquals(HttpStatus.OK, stale.getStatusCode());
+    }
+
+    @Test
+    void gzipVariantIsServedWhenAccepted() throws IOException {
+        ProductResponseCache cache = cache(1);
+        Product product = product(1, 3);
+
+        ResponseEntity<byte[]> response = cache
+                .product(1L, get(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"), () -> Optional.of(product))
+                .orElseThrow();
+
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"v3-gz\"", response.getHeaders().getETag());
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaders().getFirst(HttpHeaders.VARY));
+        assertArrayEquals(objectMapper.writeValueAsBytes(product), gunzip(response.getBody()));
+
+        // gzip;q=0 lo rechaza explícitamente
+        ResponseEntity<byte[]> plain = cache
+                .product(1L, get(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"), () -> Optional.of(product))
+                .orElseThrow();
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"v3\"", plain.getHeaders().getETag());
+    }
+
+    @Test
+    void smallBodiesAreNotCompressed() {
+        ProductResponseCache cache = cache(1 << 20);
+
+        ResponseEntity<byte[]> response = cache
+                .product(1L, get(HttpHeaders.ACCEPT_ENCODING, "gzip"), () -> Optional.of(product(1, 3)))
+                .orElseThrow();
+
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void bodiesAreReusedUntilTheCatalogChanges() {
+        ProductResponseCache cache = cache(1 << 20);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.product(1L, get(null, null), () -> {
+                loads.incrementAndGet();
+                return Optional.of(product(1, 3));
+            });
+        }
+        assertEquals(1, loads.get());
+
+        // Sin transacción activa la invalidación se aplica de inmediato
+        productCache.clear();
+        ResponseEntity<byte[]> response = cache.product(1L, get(null, null), () -> {
+            loads.incrementAndGet();
+            return Optional.of(product(1, 4));
+        }).orElseThrow();
+        assertEquals(2, loads.get());
+        assertEquals("\"v4\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void missingProductIsEmpty() {
+        assertTrue(cache(1 << 20).product(1L, get(null, null), Optional::empty).isEmpty());
+    }
+
+    @Test
+    void pageEtagDependsOnlyOnTheContent() {
+        ProductResponseCache first = cache(1 << 20);
+        ProductResponseCache second = cache(1 << 20);
+        List<Product> page = List.of(product(1, 0), product(2, 0));
+
+        String etag = first.page(null, ProductSort.ID, null, 20, get(null, null), () -> page).getHeaders().getETag();
+        // Otro nodo con el mismo contenido calcula el mismo ETag
+        assertEquals(etag,
+                second.page(null, ProductSort.ID, null, 20, get(null, null), () -> page).getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, first
+                .page(null, ProductSort.ID, null, 20, get(HttpHeaders.IF_NONE_MATCH, etag), () -> page)
+                .getStatusCode());
+    }
+
+    @Test
+    void parsesVersionTagsFromIfMatch() {
+        assertEquals(3L, ProductResponseCache.parseVersionTag("\"v3\""));
+        assertEquals(3L, ProductResponseCache.parseVersionTag(" \"v3-gz\" "));
+        assertNull(ProductResponseCache.parseVersionTag("*"));
+        assertThrows(IllegalArgumentException.class, () -> ProductResponseCache.parseVersionTag("\"abc\""));
+        assertThrows(IllegalArgumentException.class, () -> ProductResponseCache.parseVersionTag("\"vx\""));
+    }
+}
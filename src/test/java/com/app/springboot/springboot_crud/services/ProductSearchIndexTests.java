@@ -0,0 +1,120 @@
+package com.app.springboot.springboot_crud.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.app.springboot.springboot_crud.entities.Product;
+import com.app.springboot.springboot_crud.repositories.ProductRepository;
+
+class ProductSearchIndexTests {
+
+    private static Product product(long id, String name, String description) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        return product;
+    }
+
+    /*
+     * Repositorio que solo responde findAll, lo único que usa build().
+     */
+    private static ProductRepository repository(List<Product> products) {
+        return (ProductRepository) Proxy.newProxyInstance(ProductRepository.class.getClassLoader(),
+                new Class<?>[] { ProductRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("findAll") && method.getParameterCount() == 0) {
+                        return products;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static ProductSearchIndex index(Product... products) {
+        ProductSearchIndex index = new ProductSearchIndex(repository(List.of()));
+        for (Product product : products) {
+            index.indexed(product);
+        }
+        return index;
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+
+    @Test
+    void tokenizeSplitsLowercasesAndRemovesAccents() {
+        assertEquals(List.of("camara", "4k", "hdr", "pro", "nino"),
+                ProductSearchIndex.tokenize("  Cámara 4K/HDR-Pro, ¡NIÑO!"));
+        assertTrue(ProductSearchIndex.tokenize(null).isEmpty());
+        assertTrue(ProductSearchIndex.tokenize(" -/ ").isEmpty());
+    }
+
+    @Test
+    void searchIgnoresAccentsAndCase() {
+        ProductSearchIndex index = index(product(1, "Cámara réflex", "Lente incluido"));
+
+        assertEquals(List.of(1L), ids(index.search("camara", 10)));
+        assertEquals(List.of(1L), ids(index.search("CÁMARA REFLEX", 10)));
+    }
+
+    @Test
+    void wordsMatchAsPrefixes() {
+        ProductSearchIndex index = index(product(1, "Laptop", "Portátil"), product(2, "Mouse", "Inalámbrico"));
+
+        assertEquals(List.of(1L), ids(index.search("lap", 10)));
+        assertEquals(List.of(1L), ids(index.search("port", 10)));
+        assertTrue(index.search("laptops", 10).isEmpty());
+    }
+
+    @Test
+    void everyWordMustMatch() {
+        ProductSearchIndex index = index(product(1, "Laptop gamer", "16 GB"), product(2, "Laptop oficina", "8 GB"),
+                product(3, "Silla gamer", "Ergonómica"));
+
+        assertEquals(List.of(1L), ids(index.search("laptop gamer", 10)));
+        assertTrue(index.search("laptop silla", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void rankingPrefersNameAndExactMatches() {
+        ProductSearchIndex index = index(
+                product(1, "Mouse", "Para laptop"),
+                product(2, "Laptops pack", "Tres equipos"),
+                product(3, "Laptop", "Equipo"),
+                product(4, "Funda", "Para laptop"));
+
+        // Nombre exacto (3 x 2) > nombre por prefijo (3) > descripción exacta (1 x 2),
+        // y a igual puntaje el menor id
+        assertEquals(List.of(3L, 2L, 1L, 4L), ids(index.search("laptop", 10)));
+        assertEquals(List.of(3L, 2L), ids(index.search("laptop", 2)));
+    }
+
+    @Test
+    void reindexingReplacesOldTermsAndRemovedProductsDisappear() {
+        ProductSearchIndex index = index(product(1, "Teclado", "Mecánico"));
+
+        index.indexed(product(1, "Monitor", "Curvo"));
+        assertTrue(index.search("teclado", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("monitor", 10)));
+
+        index.removed(1L);
+        assertTrue(index.search("monitor", 10).isEmpty());
+    }
+
+    @Test
+    void buildReplacesTheWholeIndex() {
+        ProductSearchIndex index = new ProductSearchIndex(repository(List.of(product(2, "Parlante", "Bluetooth"))));
+        index.indexed(product(1, "Teclado", "Mecánico"));
+
+        index.build();
+
+        assertTrue(index.search("teclado", 10).isEmpty());
+        assertEquals(List.of(2L), ids(index.search("parlante", 10)));
+    }
+}